@@ -0,0 +1,131 @@
+package com.taskmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board WebSocket frames in the default JSON encoding vs the compact encoding
+ * ({@link BoardFrameCodec}): serialization cost per frame, and bytes per frame
+ * (printed once per trial, before the warmup output).
+ *
+ * Run with: mvn -Pbenchmark compile exec:exec -Djmh.args="-prof gc BoardFrameEncoding"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BoardFrameEncodingBenchmark {
+
+    // ENTRIES_PATCHED: one cost field edited on this many entries within the coalesce window
+    @Param({"1", "20"})
+    public int patchedEntries;
+
+    private BoardFrameCodec codec;
+    private Map<String, Object> createdFrame;
+    private Map<String, Object> patchedFrame;
+    private Map<String, Object> movedFrame;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        codec = new BoardFrameCodec(objectMapper);
+
+        createdFrame = frame("ENTRY_CREATED", 1, entryRow(1000L));
+
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (int i = 0; i < patchedEntries; i++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", 1000L + i);
+            entry.put("billableQuantity", new BigDecimal("125.50"));
+            entry.put("totalUnitCosting", new BigDecimal("355.00"));
+            entry.put("finalAmount", new BigDecimal("44552.5000"));
+            entries.add(entry);
+        }
+        patchedFrame = frame(BoardUpdateBroadcaster.ENTRIES_PATCHED, 2, Map.of("entries", entries));
+
+        Map<String, Object> moved = new HashMap<>();
+        moved.put("id", 1000L);
+        moved.put("previousEntryId", 1003L);
+        moved.put("nextEntryId", 1004L);
+        movedFrame = frame("ENTRY_MOVED", 3, moved);
+
+        System.out.printf("%nBytes per frame (json / compact): ENTRY_CREATED %d / %d, ENTRIES_PATCHED x%d %d / %d, ENTRY_MOVED %d / %d%n",
+                codec.encodeJson(createdFrame).length, codec.encodeCompact(createdFrame).length,
+                patchedEntries, codec.encodeJson(patchedFrame).length, codec.encodeCompact(patchedFrame).length,
+                codec.encodeJson(movedFrame).length, codec.encodeCompact(movedFrame).length);
+    }
+
+    @Benchmark
+    public byte[] createdJson() {
+        return codec.encodeJson(createdFrame);
+    }
+
+    @Benchmark
+    public byte[] createdCompact() {
+        return codec.encodeCompact(createdFrame);
+    }
+
+    @Benchmark
+    public byte[] patchedJson() {
+        return codec.encodeJson(patchedFrame);
+    }
+
+    @Benchmark
+    public byte[] patchedCompact() {
+        return codec.encodeCompact(patchedFrame);
+    }
+
+    @Benchmark
+    public byte[] movedJson() {
+        return codec.encodeJson(movedFrame);
+    }
+
+    @Benchmark
+    public byte[] movedCompact() {
+        return codec.encodeCompact(movedFrame);
+    }
+
+    // Same shape as BoardUpdateBroadcaster's frames
+    private static Map<String, Object> frame(String action, long seq, Map<String, Object> data) {
+        return Map.of(
+            "action", action,
+            "node", "a1b2c3d4",
+            "seq", seq,
+            "timestamp", 1_718_000_000_000L + seq,
+            "data", data
+        );
+    }
+
+    private static Map<String, Object> entryRow(Long id) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("consignee", "PDL");
+        row.put("lighterVesselName", "MV SEA PEARL");
+        row.put("vesselDestination", "Narayanganj");
+        row.put("date", LocalDate.of(2024, 6, 10));
+        row.put("challanNo", "CH-2024-001234");
+        row.put("convertingVessel", "MEGHNA ENERGY");
+        row.put("noOfTrucks", 12);
+        row.put("dischargingLocation", "Ghat 4");
+        row.put("finalDestination", "Site 7");
+        row.put("itemName", "10-20 Stone");
+        row.put("billableQuantity", new BigDecimal("125.50"));
+        row.put("lighterCost", new BigDecimal("150.00"));
+        row.put("unloadCost", new BigDecimal("80.00"));
+        row.put("truckCost", new BigDecimal("125.00"));
+        row.put("totalUnitCosting", new BigDecimal("355.00"));
+        row.put("finalAmount", new BigDecimal("44552.5000"));
+        return row;
+    }
+}
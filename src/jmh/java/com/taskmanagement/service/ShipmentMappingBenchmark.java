@@ -0,0 +1,150 @@
+package com.taskmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.taskmanagement.dto.ShipmentDTO;
+import com.taskmanagement.entity.*;
+import com.taskmanagement.enums.LoadUnloadStatus;
+import com.taskmanagement.enums.ShipmentStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request hot paths of the shipping module on a synthetic shipment graph:
+ * entity-to-DTO mapping, cost roll-up, flow summary and JSON serialization.
+ *
+ * Run with: mvn -Pbenchmark compile exec:exec
+ * (allocation rate comes from the GC profiler, enabled by default in jmh.args)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShipmentMappingBenchmark {
+
+    @Param({"5"})
+    public int lightersPerShipment;
+
+    @Param({"10"})
+    public int trucksPerLighter;
+
+    @Param({"3"})
+    public int productsPerTruck;
+
+    private ShipmentService shipmentService;
+    private ObjectMapper objectMapper;
+    private ShipmentCycle shipment;
+    private ShipmentDTO shipmentDTO;
+
+    @Setup
+    public void setUp() {
+        // mapToDTO touches none of the service's collaborators
+        shipmentService = new ShipmentService(null, null, null, null, null, null, null, null, null, null);
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        shipment = buildShipment(lightersPerShipment, trucksPerLighter, productsPerTruck);
+        shipmentDTO = shipmentService.mapToDTO(shipment);
+    }
+
+    @Benchmark
+    public ShipmentDTO mapToDTO() {
+        return shipmentService.mapToDTO(shipment);
+    }
+
+    @Benchmark
+    public Double calculateTotalCost() {
+        return shipment.calculateTotalCost();
+    }
+
+    @Benchmark
+    public String generateFlowSummary() {
+        shipment.generateFlowSummary();
+        return shipment.getFlowSummary();
+    }
+
+    @Benchmark
+    public byte[] serializeShipmentDTO() throws Exception {
+        return objectMapper.writeValueAsBytes(shipmentDTO);
+    }
+
+    @Benchmark
+    public void mapAndSerialize(Blackhole blackhole) throws Exception {
+        blackhole.consume(objectMapper.writeValueAsBytes(shipmentService.mapToDTO(shipment)));
+    }
+
+    static ShipmentCycle buildShipment(int lighters, int trucks, int products) {
+        Institute institute = new Institute();
+        institute.setId(1L);
+
+        User officer = new User();
+        officer.setId(1L);
+        officer.setFullName("Benchmark Officer");
+
+        LocalDate arrival = LocalDate.of(2024, 1, 1);
+        ShipmentCycle shipment = ShipmentCycle.builder()
+                .id(1L)
+                .consignee("PDL")
+                .motherVesselName("MEGHNA ENERGY")
+                .arrivalDate(arrival)
+                .totalIncomingQuantity(lighters * trucks * products * 100.0)
+                .itemType("10-20 Stone")
+                .status(ShipmentStatus.IN_PROGRESS)
+                .institute(institute)
+                .assignedTo(officer)
+                .build();
+
+        long nextId = 1;
+        for (int l = 0; l < lighters; l++) {
+            LighterLoading lighter = LighterLoading.builder()
+                    .id(nextId++)
+                    .lighterName("LIGHTER-" + l)
+                    .destination("Ghat " + l)
+                    .unloadingPoint("Point " + l)
+                    .loadingDate(arrival.plusDays(1))
+                    .loadedQuantity(trucks * products * 100.0)
+                    .lighterCost(15000.0)
+                    .status(LoadUnloadStatus.LOADED)
+                    .build();
+            shipment.addLighterLoading(lighter);
+
+            for (int t = 0; t < trucks; t++) {
+                TruckUnloading truck = TruckUnloading.builder()
+                        .id(nextId++)
+                        .challan("CH-" + l + "-" + t)
+                        .conveyanceName("Truck " + t)
+                        .numberOfTrucks(1)
+                        .dischargingLocation("Yard " + t)
+                        .destination("Site " + t)
+                        .party("Party " + t)
+                        .unloadingDate(arrival.plusDays(2))
+                        .unloadedQuantity(products * 100.0)
+                        .unloadingCost(1200.0)
+                        .status(LoadUnloadStatus.UNLOADED)
+                        .dependsOnLighterCompletion(true)
+                        .build();
+                lighter.addTruckUnloading(truck);
+
+                for (int p = 0; p < products; p++) {
+                    truck.addProductDetail(ProductDetail.builder()
+                            .id(nextId++)
+                            .item("Item " + p)
+                            .deliveryQuantity(100.0)
+                            .surveyQuantity(99.5)
+                            .lighterCost(50.0)
+                            .unloadingCost(25.0)
+                            .truckTransportCost(75.0)
+                            .build());
+                }
+            }
+        }
+        shipment.generateFlowSummary();
+        return shipment;
+    }
+}
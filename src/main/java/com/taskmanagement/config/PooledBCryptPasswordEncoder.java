@@ -0,0 +1,62 @@
+package com.taskmanagement.config;
+
+import com.taskmanagement.service.PasswordHashingPool;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that runs on the {@link PasswordHashingPool} and re-hashes stored passwords
+ * whose cost differs from the configured one (higher or lower) after a successful login, via
+ * DaoAuthenticationProvider's upgradeEncoding / UserDetailsPasswordService hook; the re-hash is
+ * skipped when the pool is busy (see SecurityConfig.authenticationProvider). Hashes keep the
+ * plain BCrypt format, so existing passwords stay valid whatever the configured cost.
+ */
+public class PooledBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final PasswordHashingPool pool;
+    private final int cost;
+
+    public PooledBCryptPasswordEncoder(int cost, PasswordHashingPool pool) {
+        this.bcrypt = new BCryptPasswordEncoder(cost);
+        this.pool = pool;
+        this.cost = cost;
+    }
+
+    /**
+     * Throws {@link PasswordHashingPool.BusyException} when the pool is saturated; callers
+     * setting a password report it as "retry in a moment", like a login turned away
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return pool.execute(() -> bcrypt.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        try {
+            return pool.execute(() -> bcrypt.matches(rawPassword, encodedPassword)); // cost is read from the hash
+        } catch (PasswordHashingPool.BusyException e) {
+            // Reported as a failed login (not a server error)
+            throw new AuthenticationServiceException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * False while hashes are queued: a re-hash is optional work and waits for a quieter login
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || pool.hasQueue()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != cost;
+    }
+}
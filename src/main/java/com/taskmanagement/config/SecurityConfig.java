@@ -1,15 +1,20 @@
 package com.taskmanagement.config;
 
+import com.taskmanagement.service.CustomUserDetailsService;
+import com.taskmanagement.service.PasswordHashingPool;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
@@ -18,9 +23,9 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
 
-    public SecurityConfig(UserDetailsService userDetailsService) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService) {
         this.userDetailsService = userDetailsService;
     }
 
@@ -66,16 +71,46 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * BCrypt on a bounded pool; stored hashes of another cost are re-hashed on the next successful login
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(PasswordHashingPool passwordHashingPool,
+                                           @Value("${security.password.bcrypt-cost:12}") int bcryptCost) {
+        return new PooledBCryptPasswordEncoder(bcryptCost, passwordHashingPool);
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider() {
+            @Override
+            public Authentication authenticate(Authentication authentication) {
+                try {
+                    return super.authenticate(authentication);
+                } catch (PasswordHashingPool.BusyException e) {
+                    // The dummy hash for unknown users is encoded on first use; reported like a busy check
+                    throw new AuthenticationServiceException(e.getMessage(), e);
+                }
+            }
+
+            @Override
+            protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                                 UserDetails user) {
+                try {
+                    return super.createSuccessAuthentication(principal, authentication, user);
+                } catch (PasswordHashingPool.BusyException e) {
+                    // Re-hashing the password (upgradeEncoding) is best-effort: the password was correct,
+                    // so keep the old hash and log in; the next login tries again
+                    UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                            principal, authentication.getCredentials(), user.getAuthorities());
+                    result.setDetails(authentication.getDetails());
+                    return result;
+                }
+            }
+        };
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
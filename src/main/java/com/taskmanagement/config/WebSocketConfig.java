@@ -1,21 +1,177 @@
 package com.taskmanagement.config;
 
+import com.taskmanagement.entity.User;
+import com.taskmanagement.repository.ShipmentCycleRepository;
+import com.taskmanagement.service.WebSocketSessionMonitor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import java.security.Principal;
+
+/**
+ * STOMP over WebSocket. websocket.broker.mode selects the broker:
+ * <ul>
+ *   <li>simple (default): the in-process broker; messages only reach clients of this node.
+ *       Use it for single-node deployments and tests.</li>
+ *   <li>relay: /topic and /queue are relayed to an external STOMP broker (e.g. ActiveMQ Artemis
+ *       or RabbitMQ with the STOMP plugin), so every node sees every message. User destinations
+ *       ({@code convertAndSendToUser}) are resolved across nodes through the shared user registry.</li>
+ * </ul>
+ * Subscriptions to /topic/institute/{id}/... are limited to members of that institute, and
+ * subscriptions to /topic/shipment/{id} to members of the shipment's institute.
+ * Each session's outbound buffer is bounded: a client that cannot keep up within the send-time
+ * or buffer limit is disconnected (it resyncs on reconnect) instead of growing the heap.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final String INSTITUTE_TOPIC = "/topic/institute/";
+    private static final String SHIPMENT_TOPIC = "/topic/shipment/";
+
+    private final WebSocketSessionMonitor webSocketSessionMonitor;
+    private final ShipmentCycleRepository shipmentCycleRepository;
+
+    @Value("${websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.client-login:guest}")
+    private String clientLogin;
+
+    @Value("${websocket.broker.relay.client-passcode:guest}")
+    private String clientPasscode;
+
+    @Value("${websocket.broker.relay.system-login:guest}")
+    private String systemLogin;
+
+    @Value("${websocket.broker.relay.system-passcode:guest}")
+    private String systemPasscode;
+
+    @Value("${websocket.broker.relay.virtual-host:}")
+    private String virtualHost;
+
+    public WebSocketConfig(WebSocketSessionMonitor webSocketSessionMonitor,
+                           ShipmentCycleRepository shipmentCycleRepository) {
+        this.webSocketSessionMonitor = webSocketSessionMonitor;
+        this.shipmentCycleRepository = shipmentCycleRepository;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        switch (brokerMode.trim().toLowerCase()) {
+            case "simple" -> config.enableSimpleBroker("/topic", "/queue");
+            case "relay" -> {
+                StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                        .setRelayHost(relayHost)
+                        .setRelayPort(relayPort)
+                        .setClientLogin(clientLogin)
+                        .setClientPasscode(clientPasscode)
+                        .setSystemLogin(systemLogin)
+                        .setSystemPasscode(systemPasscode)
+                        // Share connected users between nodes, and hand unresolved /user messages to the other nodes
+                        .setUserRegistryBroadcast("/topic/simp-user-registry")
+                        .setUserDestinationBroadcast("/topic/unresolved-user-destination");
+                if (!virtualHost.isBlank()) {
+                    relay.setVirtualHost(virtualHost);
+                }
+            }
+            default -> throw new IllegalStateException(
+                    "Unknown websocket.broker.mode '" + brokerMode + "' (expected simple or relay)");
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(webSocketSessionMonitor::decorate);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Shipment events (institute-wide and per shipment) only go to members of the institute
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.SUBSCRIBE) {
+                    String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                    Principal principal = SimpMessageHeaderAccessor.getUser(message.getHeaders());
+                    if (destination != null && destination.startsWith(INSTITUTE_TOPIC)
+                            && !isInstituteMember(principal, pathId(destination, INSTITUTE_TOPIC))) {
+                        throw new MessageDeliveryException("Access denied: " + destination);
+                    }
+                    if (destination != null && destination.startsWith(SHIPMENT_TOPIC)
+                            && !isShipmentInstituteMember(principal, pathId(destination, SHIPMENT_TOPIC))) {
+                        throw new MessageDeliveryException("Access denied: " + destination);
+                    }
+                }
+                return message;
+            }
+        });
+    }
+
+    private boolean isShipmentInstituteMember(Principal principal, String shipmentId) {
+        Long id;
+        try {
+            id = Long.valueOf(shipmentId);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return shipmentCycleRepository.findInstituteIdById(id)
+                .map(instituteId -> isInstituteMember(principal, String.valueOf(instituteId)))
+                .orElse(false);
+    }
+
+    private static boolean isInstituteMember(Principal principal, String instituteId) {
+        if (!(principal instanceof Authentication authentication)
+                || !(authentication.getPrincipal() instanceof User user) || user.getInstitute() == null) {
+            return false;
+        }
+        return instituteId.equals(String.valueOf(user.getInstitute().getId()));
+    }
+
+    // First path segment after the prefix, e.g. 12 in /topic/institute/12/shipments
+    private static String pathId(String destination, String prefix) {
+        int end = destination.indexOf('/', prefix.length());
+        return destination.substring(prefix.length(), end < 0 ? destination.length() : end);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(webSocketSessionMonitor.outboundInterceptor());
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
@@ -3,23 +3,41 @@ package com.taskmanagement.controller;
 import com.taskmanagement.entity.Institute;
 import com.taskmanagement.entity.User;
 import com.taskmanagement.enums.UserRole;
+import com.taskmanagement.service.BoardAccessCache;
 import com.taskmanagement.service.InstituteService;
+import com.taskmanagement.service.PasswordHashingPool;
+import com.taskmanagement.service.ShipmentViewCache;
 import com.taskmanagement.service.UserService;
+import com.taskmanagement.service.WebSocketSessionMonitor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 @Controller
 @RequestMapping("/admin")
 public class AdminController {
 
     private final InstituteService instituteService;
     private final UserService userService;
-
-    public AdminController(InstituteService instituteService, UserService userService) {
+    private final ShipmentViewCache shipmentViewCache;
+    private final WebSocketSessionMonitor webSocketSessionMonitor;
+    private final BoardAccessCache boardAccessCache;
+    private final PasswordHashingPool passwordHashingPool;
+
+    public AdminController(InstituteService instituteService, UserService userService,
+                           ShipmentViewCache shipmentViewCache, WebSocketSessionMonitor webSocketSessionMonitor,
+                           BoardAccessCache boardAccessCache, PasswordHashingPool passwordHashingPool) {
         this.instituteService = instituteService;
         this.userService = userService;
+        this.shipmentViewCache = shipmentViewCache;
+        this.webSocketSessionMonitor = webSocketSessionMonitor;
+        this.boardAccessCache = boardAccessCache;
+        this.passwordHashingPool = passwordHashingPool;
     }
 
     @GetMapping("/dashboard")
@@ -98,7 +116,12 @@ public class AdminController {
             redirectAttributes.addFlashAttribute("error", "Email already exists");
             return "redirect:/admin/users/new";
         }
-        userService.createUser(user, password);
+        try {
+            userService.createUser(user, password);
+        } catch (PasswordHashingPool.BusyException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+            return "redirect:/admin/users/new";
+        }
         redirectAttributes.addFlashAttribute("success", "User created successfully");
         return "redirect:/admin/users";
     }
@@ -121,7 +144,12 @@ public class AdminController {
             .orElseThrow(() -> new RuntimeException("User not found"));
         user.setId(id);
         if (password != null && !password.isEmpty()) {
-            userService.createUser(user, password);
+            try {
+                userService.createUser(user, password);
+            } catch (PasswordHashingPool.BusyException e) {
+                redirectAttributes.addFlashAttribute("error", e.getMessage());
+                return "redirect:/admin/users/" + id + "/edit";
+            }
         } else {
             user.setPassword(existing.getPassword());
             userService.save(user);
@@ -136,4 +164,27 @@ public class AdminController {
         redirectAttributes.addFlashAttribute("success", "User deleted successfully");
         return "redirect:/admin/users";
     }
+
+    // Cache Metrics
+    @GetMapping("/api/cache-stats")
+    @ResponseBody
+    public List<Map<String, Object>> cacheStats() {
+        List<Map<String, Object>> stats = new ArrayList<>(shipmentViewCache.stats());
+        stats.add(boardAccessCache.stats());
+        return stats;
+    }
+
+    // Password hashing pool: queue depth, rejections, wait and hash times
+    @GetMapping("/api/password-hashing-stats")
+    @ResponseBody
+    public Map<String, Object> passwordHashingStats() {
+        return passwordHashingPool.stats();
+    }
+
+    // WebSocket outbound queues: per session and per board
+    @GetMapping("/api/websocket-stats")
+    @ResponseBody
+    public Map<String, Object> webSocketStats() {
+        return webSocketSessionMonitor.stats();
+    }
 }
@@ -5,20 +5,24 @@ import com.taskmanagement.entity.Institute;
 import com.taskmanagement.entity.ShipmentEntry;
 import com.taskmanagement.entity.User;
 import com.taskmanagement.enums.UserRole;
+import com.taskmanagement.service.BoardFrameCodec;
 import com.taskmanagement.service.BoardService;
+import com.taskmanagement.service.BoardUpdateBroadcaster;
 import com.taskmanagement.service.ExcelExportService;
 import com.taskmanagement.service.InstituteService;
 import com.taskmanagement.service.ShipmentEntryService;
 import com.taskmanagement.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
 import java.util.List;
 
 @Controller
@@ -29,14 +33,19 @@ public class BoardController {
     private final UserService userService;
     private final InstituteService instituteService;
     private final ExcelExportService excelExportService;
+    private final BoardUpdateBroadcaster boardUpdateBroadcaster;
+    private final BoardFrameCodec boardFrameCodec;
 
     public BoardController(BoardService boardService, ShipmentEntryService shipmentEntryService, 
-                          UserService userService, InstituteService instituteService, ExcelExportService excelExportService) {
+                          UserService userService, InstituteService instituteService, ExcelExportService excelExportService,
+                          BoardUpdateBroadcaster boardUpdateBroadcaster, BoardFrameCodec boardFrameCodec) {
         this.boardService = boardService;
         this.shipmentEntryService = shipmentEntryService;
         this.userService = userService;
         this.instituteService = instituteService;
         this.excelExportService = excelExportService;
+        this.boardUpdateBroadcaster = boardUpdateBroadcaster;
+        this.boardFrameCodec = boardFrameCodec;
     }
 
     @GetMapping("/boards")
@@ -102,10 +111,23 @@ public class BoardController {
             return "redirect:/boards";
         }
         
-        List<ShipmentEntry> entries = shipmentEntryService.findByBoardId(id);
-        
+        // Taken before the rows are read: the page replays any update from here on (at least once)
+        long updateSeq = boardUpdateBroadcaster.currentSeq(id);
+
+        // Only the first window is rendered; the page loads further rows as the user scrolls
+        ShipmentEntryService.EntryWindow window = shipmentEntryService.findWindow(id, null, null, null);
+        ShipmentEntry last = window.getLast();
+
         model.addAttribute("board", board);
-        model.addAttribute("entries", entries);
+        model.addAttribute("entries", window.getEntries());
+        model.addAttribute("totalEntries", shipmentEntryService.countByBoardId(id));
+        model.addAttribute("hasMoreEntries", window.isHasMore());
+        model.addAttribute("nextAfterPosition", window.isHasMore() ? last.getPosition() : null);
+        model.addAttribute("nextAfterId", window.isHasMore() ? last.getId() : null);
+        model.addAttribute("updateNode", boardUpdateBroadcaster.getNodeId());
+        model.addAttribute("updateSeq", updateSeq);
+        model.addAttribute("compactFrames", boardUpdateBroadcaster.isCompactFrames());
+        model.addAttribute("frameSchema", boardFrameCodec.schema());
         model.addAttribute("currentUser", currentUser);
         model.addAttribute("isManager", board.getCreatedBy().getId().equals(currentUser.getId()));
         return "board/board-view";
@@ -196,32 +218,27 @@ public class BoardController {
         return "redirect:/boards";
     }
 
+    /**
+     * Streams the workbook straight to the response so memory use does not grow with the board
+     */
     @GetMapping("/boards/{id}/export")
-    public ResponseEntity<byte[]> exportBoardToExcel(@PathVariable Long id,
-                                                     @AuthenticationPrincipal User currentUser) {
+    public void exportBoardToExcel(@PathVariable Long id,
+                                   @AuthenticationPrincipal User currentUser,
+                                   HttpServletResponse response) throws IOException {
         Board board = boardService.findById(id)
             .orElseThrow(() -> new RuntimeException("Board not found"));
         
         // Check access permission
         if (!boardService.canUserAccessBoard(board, currentUser)) {
-            return ResponseEntity.status(403).build();
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
         }
         
-        try {
-            List<ShipmentEntry> entries = shipmentEntryService.findByBoardId(id);
-            byte[] excelData = excelExportService.exportBoardToExcel(board, entries);
-            
-            String filename = board.getTitle().replaceAll("[^a-zA-Z0-9-_]", "_") + ".xlsx";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", filename);
-            
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(excelData);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).build();
-        }
+        String filename = board.getTitle().replaceAll("[^a-zA-Z0-9-_]", "_") + ".xlsx";
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(filename).build().toString());
+
+        excelExportService.streamBoardToExcel(board, response.getOutputStream());
     }
 }
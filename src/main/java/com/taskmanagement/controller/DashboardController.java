@@ -1,7 +1,6 @@
 package com.taskmanagement.controller;
 
 import com.taskmanagement.entity.Board;
-import com.taskmanagement.entity.ShipmentEntry;
 import com.taskmanagement.entity.User;
 import com.taskmanagement.service.BoardService;
 import com.taskmanagement.service.ShipmentEntryService;
@@ -38,19 +37,17 @@ public class DashboardController {
         Map<String, Integer> shipmentsPerBoard = new HashMap<>();
         Map<String, BigDecimal> revenuePerBoard = new HashMap<>();
         
+        // Counts and revenue of all boards in one aggregate query
+        Map<Long, ShipmentEntryService.BoardTotals> totalsByBoard = shipmentEntryService.getBoardTotals(
+            boards.stream().map(Board::getId).toList());
+        
         for (Board board : boards) {
-            List<ShipmentEntry> entries = shipmentEntryService.findByBoardId(board.getId());
-            int count = entries.size();
-            totalShipments += count;
-            
-            BigDecimal boardRevenue = entries.stream()
-                .map(ShipmentEntry::getFinalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            totalRevenue = totalRevenue.add(boardRevenue);
+            ShipmentEntryService.BoardTotals totals = totalsByBoard.getOrDefault(board.getId(), ShipmentEntryService.BoardTotals.EMPTY);
+            totalShipments += totals.getEntryCount();
+            totalRevenue = totalRevenue.add(totals.getRevenue());
             
-            shipmentsPerBoard.put(board.getTitle(), count);
-            revenuePerBoard.put(board.getTitle(), boardRevenue);
+            shipmentsPerBoard.put(board.getTitle(), totals.getEntryCount());
+            revenuePerBoard.put(board.getTitle(), totals.getRevenue());
         }
         
         model.addAttribute("totalBoards", totalBoards);
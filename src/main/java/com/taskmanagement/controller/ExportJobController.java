@@ -0,0 +1,104 @@
+package com.taskmanagement.controller;
+
+import com.taskmanagement.entity.Board;
+import com.taskmanagement.entity.User;
+import com.taskmanagement.repository.ShipmentCycleRepository;
+import com.taskmanagement.service.BoardService;
+import com.taskmanagement.service.ExportJob;
+import com.taskmanagement.service.ExportJobService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Background exports: submit, poll (or listen on /user/queue/exports), then download
+ */
+@RestController
+@RequestMapping("/api/exports")
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+    private final BoardService boardService;
+    private final ShipmentCycleRepository shipmentCycleRepository;
+
+    public ExportJobController(ExportJobService exportJobService, BoardService boardService,
+                               ShipmentCycleRepository shipmentCycleRepository) {
+        this.exportJobService = exportJobService;
+        this.boardService = boardService;
+        this.shipmentCycleRepository = shipmentCycleRepository;
+    }
+
+    @PostMapping("/boards/{boardId}")
+    public ResponseEntity<?> exportBoard(@PathVariable Long boardId,
+                                         @AuthenticationPrincipal User currentUser) {
+        Board board = boardService.findById(boardId)
+            .orElseThrow(() -> new RuntimeException("Board not found"));
+
+        // Check access
+        if (!boardService.canUserAccessBoard(board, currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+        }
+
+        ExportJob job = exportJobService.submitBoardExport(board, currentUser.getUsername());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobService.describe(job));
+    }
+
+    @PostMapping("/shipments/{shipmentId}")
+    public ResponseEntity<?> exportShipment(@PathVariable Long shipmentId,
+                                            @AuthenticationPrincipal User currentUser) {
+        if (!canAccess(ExportJob.Type.SHIPMENT, shipmentId, currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+        }
+
+        ExportJob job = exportJobService.submitShipmentExport(shipmentId, currentUser.getUsername());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobService.describe(job));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId,
+                                    @AuthenticationPrincipal User currentUser) {
+        ExportJob job = exportJobService.findJob(jobId).orElse(null);
+        if (job == null || !canAccess(job.getType(), job.getTargetId(), currentUser)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Export not found"));
+        }
+        return ResponseEntity.ok(exportJobService.describe(job));
+    }
+
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<?> download(@PathVariable String jobId,
+                                      @AuthenticationPrincipal User currentUser) {
+        ExportJob job = exportJobService.findJob(jobId).orElse(null);
+        if (job == null || !canAccess(job.getType(), job.getTargetId(), currentUser)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Export not found"));
+        }
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(exportJobService.describe(job));
+        }
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(job.getFilename()).build().toString())
+            .body(new FileSystemResource(job.getFile()));
+    }
+
+    // Jobs are shared between users with the same access, since unchanged targets reuse a finished file
+    private boolean canAccess(ExportJob.Type type, Long targetId, User user) {
+        if (type == ExportJob.Type.BOARD) {
+            return boardService.findById(targetId)
+                .map(board -> boardService.canUserAccessBoard(board, user))
+                .orElse(false);
+        }
+        return shipmentCycleRepository.findById(targetId)
+            .map(shipment -> user.getInstitute() != null
+                && shipment.getInstitute().getId().equals(user.getInstitute().getId()))
+            .orElse(false);
+    }
+}
@@ -1,13 +1,20 @@
 package com.taskmanagement.controller;
 
 import com.taskmanagement.dto.ShipmentDTO;
+import com.taskmanagement.dto.ShipmentImportResultDTO;
+import com.taskmanagement.dto.ShipmentSummaryPageDTO;
 import com.taskmanagement.dto.ShippingDashboardDTO;
 import com.taskmanagement.entity.User;
+import com.taskmanagement.enums.ShipmentStatus;
 import com.taskmanagement.repository.UserRepository;
+import com.taskmanagement.service.ShipmentImportService;
 import com.taskmanagement.service.ShipmentService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -16,6 +23,8 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -26,6 +35,7 @@ import java.util.stream.Collectors;
 public class ShipmentController {
 
     private final ShipmentService shipmentService;
+    private final ShipmentImportService shipmentImportService;
     private final UserRepository userRepository;
 
     // ================== WEB PAGES ==================
@@ -38,10 +48,11 @@ public class ShipmentController {
         Long instituteId = currentUser.getInstitute().getId();
         
         ShippingDashboardDTO dashboard = shipmentService.getDashboard(instituteId);
-        List<ShipmentDTO> recentShipments = shipmentService.getAllShipmentsByInstitute(instituteId);
+        ShipmentSummaryPageDTO recentShipments = shipmentService.listShipmentSummaries(
+                instituteId, null, null, null, null, null, null, null, null);
         
         model.addAttribute("dashboard", dashboard);
-        model.addAttribute("recentShipments", recentShipments);
+        model.addAttribute("recentShipments", recentShipments.getShipments());
         model.addAttribute("currentUser", currentUser);
         
         return "shipping/dashboard";
@@ -183,14 +194,33 @@ public class ShipmentController {
     // ================== REST API ENDPOINTS ==================
 
     /**
-     * Get all shipments for institute (REST)
+     * Get shipments for institute (REST).
+     * Without parameters this is the original response: every shipment as a full ShipmentDTO.
+     * With limit, a cursor (afterDate/afterId) or a filter it returns one keyset page of flat
+     * summaries instead; pass nextAfterDate/nextAfterId of the previous page as afterDate/afterId.
      */
     @GetMapping("/api/shipments")
     @ResponseBody
-    public ResponseEntity<List<ShipmentDTO>> getShipments(@AuthenticationPrincipal User currentUser) {
+    public ResponseEntity<?> getShipments(
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(required = false) ShipmentStatus status,
+            @RequestParam(required = false) String consignee,
+            @RequestParam(required = false) String vessel,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
         Long instituteId = currentUser.getInstitute().getId();
-        List<ShipmentDTO> shipments = shipmentService.getAllShipmentsByInstitute(instituteId);
-        return ResponseEntity.ok(shipments);
+        boolean paged = limit != null || afterDate != null || afterId != null || status != null
+                || consignee != null || vessel != null || fromDate != null || toDate != null;
+        if (!paged) {
+            return ResponseEntity.ok(shipmentService.getAllShipmentsByInstitute(instituteId));
+        }
+
+        ShipmentSummaryPageDTO page = shipmentService.listShipmentSummaries(
+                instituteId, status, consignee, vessel, fromDate, toDate, afterDate, afterId, limit);
+        return ResponseEntity.ok(page);
     }
 
     /**
@@ -216,6 +246,27 @@ public class ShipmentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * Bulk import a shipment manifest as JSON (ShipmentDTO shape) or CSV (REST).
+     * 201 when rows were imported, 422 with the same report when every row was rejected
+     * or the manifest broke off before anything was imported (no shipment is left behind then).
+     */
+    @PostMapping(value = "/api/shipment/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    @ResponseBody
+    public ResponseEntity<ShipmentImportResultDTO> importShipmentApi(
+            HttpServletRequest request,
+            @AuthenticationPrincipal User currentUser) throws IOException {
+
+        Long instituteId = currentUser.getInstitute().getId();
+        boolean csv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf("text/csv"));
+
+        ShipmentImportResultDTO result = csv
+                ? shipmentImportService.importCsv(request.getInputStream(), instituteId, currentUser.getId())
+                : shipmentImportService.importJson(request.getInputStream(), instituteId, currentUser.getId());
+        boolean nothingImported = result.getShipmentId() == null;
+        return ResponseEntity.status(nothingImported ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.CREATED).body(result);
+    }
+
     /**
      * Update shipment (REST)
      */
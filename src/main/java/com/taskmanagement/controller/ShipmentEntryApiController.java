@@ -1,56 +1,143 @@
 package com.taskmanagement.controller;
 
+import com.taskmanagement.dto.BoardImportResultDTO;
+import com.taskmanagement.dto.EntryCellEditDTO;
+import com.taskmanagement.dto.EntrySearchCriteria;
 import com.taskmanagement.entity.Board;
 import com.taskmanagement.entity.ShipmentEntry;
 import com.taskmanagement.entity.User;
+import com.taskmanagement.service.BoardImportService;
 import com.taskmanagement.service.BoardService;
+import com.taskmanagement.service.BoardUpdateBroadcaster;
+import com.taskmanagement.service.RowOrderingService;
+import com.taskmanagement.service.ShipmentEntrySearchService;
 import com.taskmanagement.service.ShipmentEntryService;
 import com.taskmanagement.service.WebSocketService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.util.*;
 
 @RestController
 @RequestMapping("/api/boards/{boardId}/entries")
 public class ShipmentEntryApiController {
 
+    // Fields that feed the calculated totalUnitCosting / finalAmount columns
+    private static final Set<String> COSTING_FIELDS = Set.of("billableQuantity", "lighterCost", "unloadCost", "truckCost");
+
     private final ShipmentEntryService shipmentEntryService;
     private final BoardService boardService;
     private final WebSocketService webSocketService;
+    private final BoardImportService boardImportService;
+    private final ShipmentEntrySearchService shipmentEntrySearchService;
+    private final BoardUpdateBroadcaster boardUpdateBroadcaster;
 
-    public ShipmentEntryApiController(ShipmentEntryService shipmentEntryService, BoardService boardService, WebSocketService webSocketService) {
+    public ShipmentEntryApiController(ShipmentEntryService shipmentEntryService, BoardService boardService,
+                                      WebSocketService webSocketService, BoardImportService boardImportService,
+                                      ShipmentEntrySearchService shipmentEntrySearchService,
+                                      BoardUpdateBroadcaster boardUpdateBroadcaster) {
         this.shipmentEntryService = shipmentEntryService;
         this.boardService = boardService;
         this.webSocketService = webSocketService;
+        this.boardImportService = boardImportService;
+        this.shipmentEntrySearchService = shipmentEntrySearchService;
+        this.boardUpdateBroadcaster = boardUpdateBroadcaster;
+    }
+
+    /**
+     * One window of rows in grid order; pass nextAfterPosition/nextAfterId back to get the next one
+     */
+    @GetMapping
+    public ResponseEntity<?> getEntries(@PathVariable Long boardId,
+                                       @RequestParam(required = false) Long afterPosition,
+                                       @RequestParam(required = false) Long afterId,
+                                       @RequestParam(required = false) Integer limit,
+                                       @AuthenticationPrincipal User currentUser) {
+        // Check access
+        if (!boardService.canUserAccessBoard(boardId, currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+        }
+
+        ShipmentEntryService.EntryWindow window = shipmentEntryService.findWindow(boardId, afterPosition, afterId, limit);
+        ShipmentEntry last = window.getLast();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("entries", window.getEntries().stream().map(this::buildResponse).toList());
+        response.put("total", shipmentEntryService.countByBoardId(boardId));
+        response.put("hasMore", window.isHasMore());
+        response.put("nextAfterPosition", window.isHasMore() ? last.getPosition() : null);
+        response.put("nextAfterId", window.isHasMore() ? last.getId() : null);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Filtered and sorted entries, one keyset page at a time; pass nextCursor back as cursor
+     * (with the same sort) for the next page. Example: ?consignee=ABC&fromDate=2024-01-01&sort=-date,challanNo
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchEntries(@PathVariable Long boardId,
+                                          EntrySearchCriteria criteria,
+                                          @AuthenticationPrincipal User currentUser) {
+        // Check access
+        if (!boardService.canUserAccessBoard(boardId, currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+        }
+
+        ShipmentEntrySearchService.EntryPage page;
+        try {
+            page = shipmentEntrySearchService.search(boardId, criteria);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("entries", page.getEntries().stream().map(this::buildResponse).toList());
+        response.put("hasMore", page.isHasMore());
+        response.put("nextCursor", page.getNextCursor());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Resume after a reconnect: the board's updates after (node, afterSeq), or complete=false when
+     * they are no longer buffered and the client has to reload its rows
+     */
+    @GetMapping("/events")
+    public ResponseEntity<?> resumeEvents(@PathVariable Long boardId,
+                                         @RequestParam String node,
+                                         @RequestParam long afterSeq,
+                                         @AuthenticationPrincipal User currentUser) {
+        // Check access
+        if (!boardService.canUserAccessBoard(boardId, currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+        }
+
+        BoardUpdateBroadcaster.Replay replay = boardUpdateBroadcaster.replay(boardId, node, afterSeq);
+        Map<String, Object> response = new HashMap<>();
+        response.put("node", replay.getNode());
+        response.put("seq", replay.getSeq());
+        response.put("complete", replay.isComplete());
+        response.put("events", replay.getEvents());
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping
     public ResponseEntity<?> createEntry(@PathVariable Long boardId,
                                         @AuthenticationPrincipal User currentUser) {
-        Board board = boardService.findById(boardId)
-            .orElseThrow(() -> new RuntimeException("Board not found"));
-        
         // Check access
-        if (!boardService.canUserAccessBoard(board, currentUser)) {
+        if (!boardService.canUserAccessBoard(boardId, currentUser)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
         }
+
+        Board board = boardService.findById(boardId)
+            .orElseThrow(() -> new RuntimeException("Board not found"));
         
-        ShipmentEntry entry = new ShipmentEntry();
-        entry.setBoard(board);
-        entry.setCreatedBy(currentUser);
-        entry.setUpdatedBy(currentUser);
-        
-        // Set position to be last
-        Long count = shipmentEntryService.countByBoardId(boardId);
-        entry.setPosition(count.intValue());
-        
-        ShipmentEntry saved = shipmentEntryService.save(entry);
+        // Appended after the current last row
+        ShipmentEntry saved = shipmentEntryService.createEntry(board, currentUser);
         
         // Broadcast to all users viewing this board
         webSocketService.sendBoardUpdate(boardId, "ENTRY_CREATED", buildResponse(saved));
@@ -63,48 +150,157 @@ public class ShipmentEntryApiController {
                                         @PathVariable Long entryId,
                                         @RequestBody Map<String, Object> updates,
                                         @AuthenticationPrincipal User currentUser) {
-        Board board = boardService.findById(boardId)
-            .orElseThrow(() -> new RuntimeException("Board not found"));
-        
         // Check access
-        if (!boardService.canUserAccessBoard(board, currentUser)) {
+        if (!boardService.canUserAccessBoard(boardId, currentUser)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
         }
         
-        ShipmentEntry entry = shipmentEntryService.findById(entryId)
-            .orElseThrow(() -> new RuntimeException("Entry not found"));
+        ShipmentEntry entry = shipmentEntryService.findByIdAndBoardId(entryId, boardId).orElse(null);
+        if (entry == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Entry not found");
+        }
         
-        // Update fields dynamically
+        // Update fields dynamically; nothing is saved when any of them is invalid
+        Map<String, String> fieldErrors = new HashMap<>();
         updates.forEach((key, value) -> {
             try {
-                updateField(entry, key, value);
-            } catch (Exception e) {
-                System.err.println("Error updating field " + key + ": " + e.getMessage());
+                ShipmentEntryService.updateField(entry, key, value);
+            } catch (RuntimeException e) {
+                fieldErrors.put(key, "Invalid value for " + key + ": " + e.getMessage());
             }
         });
+        if (!fieldErrors.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("errors", fieldErrors));
+        }
         
         entry.setUpdatedBy(currentUser);
         ShipmentEntry saved = shipmentEntryService.save(entry);
         
-        // Broadcast to all users viewing this board
-        webSocketService.sendBoardUpdate(boardId, "ENTRY_UPDATED", buildResponse(saved));
+        // Broadcast only the changed fields to all users viewing this board
+        webSocketService.sendEntryChanges(boardId, saved.getId(), buildDelta(saved, updates.keySet()));
         
         return ResponseEntity.ok(buildResponse(saved));
     }
 
+    /**
+     * Apply many cell edits (e.g. a block pasted from Excel) in one transaction.
+     * Returns one result per edit and broadcasts a single ENTRIES_UPDATED message.
+     */
+    @PatchMapping
+    public ResponseEntity<?> updateEntries(@PathVariable Long boardId,
+                                          @RequestBody List<EntryCellEditDTO> edits,
+                                          @AuthenticationPrincipal User currentUser) {
+        // Check access once for the whole batch
+        if (!boardService.canUserAccessBoard(boardId, currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+        }
+
+        ShipmentEntryService.BatchEditResult result = shipmentEntryService.applyEdits(boardId, edits, currentUser);
+        List<Map<String, Object>> entries = result.getChangedEntries().stream()
+            .map(this::buildResponse)
+            .toList();
+
+        // Broadcast only the edited fields; the broadcaster coalesces them into one frame
+        Map<Long, Set<String>> editedFields = new HashMap<>();
+        result.getResults().stream()
+            .filter(r -> Boolean.TRUE.equals(r.get("success")))
+            .forEach(r -> editedFields.computeIfAbsent((Long) r.get("entryId"), id -> new HashSet<>())
+                .add((String) r.get("field")));
+        for (ShipmentEntry entry : result.getChangedEntries()) {
+            webSocketService.sendEntryChanges(boardId, entry.getId(), buildDelta(entry, editedFields.get(entry.getId())));
+        }
+
+        long failed = result.getResults().stream().filter(r -> !Boolean.TRUE.equals(r.get("success"))).count();
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", result.getResults().size() - failed);
+        response.put("failed", failed);
+        response.put("results", result.getResults());
+        response.put("entries", entries);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Drag-and-drop reorder: place the entry between previousEntryId and nextEntryId
+     */
+    @PostMapping("/{entryId}/move")
+    public ResponseEntity<?> moveEntry(@PathVariable Long boardId,
+                                      @PathVariable Long entryId,
+                                      @RequestBody Map<String, Long> neighbours,
+                                      @AuthenticationPrincipal User currentUser) {
+        // Check access
+        if (!boardService.canUserAccessBoard(boardId, currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+        }
+
+        Long previousEntryId = neighbours.get("previousEntryId");
+        Long nextEntryId = neighbours.get("nextEntryId");
+        ShipmentEntry moved;
+        try {
+            moved = shipmentEntryService.moveEntry(boardId, entryId, previousEntryId, nextEntryId);
+        } catch (RowOrderingService.StaleNeighboursException e) {
+            // The client's order is out of date; it reloads the board
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", moved.getId());
+        payload.put("previousEntryId", previousEntryId);
+        payload.put("nextEntryId", nextEntryId);
+        webSocketService.sendBoardUpdate(boardId, "ENTRY_MOVED", payload);
+
+        return ResponseEntity.ok(payload);
+    }
+
+    /**
+     * Append the rows of an uploaded challan sheet (.xlsx or .csv, export column layout) to the board.
+     * A file that breaks off partway still answers with the rows imported so far and the error.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importEntries(@PathVariable Long boardId,
+                                          @RequestParam("file") MultipartFile file,
+                                          @AuthenticationPrincipal User currentUser) throws IOException {
+        // Check access
+        if (!boardService.canUserAccessBoard(boardId, currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
+        }
+
+        Board board = boardService.findById(boardId)
+            .orElseThrow(() -> new RuntimeException("Board not found"));
+
+        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        BoardImportResultDTO result;
+        try {
+            if (filename.endsWith(".xlsx")) {
+                result = boardImportService.importXlsx(file.getInputStream(), board, currentUser);
+            } else if (filename.endsWith(".csv")) {
+                result = boardImportService.importCsv(file.getInputStream(), board, currentUser);
+            } else {
+                return ResponseEntity.badRequest().body(Map.of("error", "Only .xlsx and .csv files can be imported"));
+            }
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        // Rows were appended at the end; viewers fetch them like any further window
+        if (result.getRowsImported() > 0) {
+            webSocketService.sendBoardUpdate(boardId, "ENTRIES_IMPORTED", Map.of("count", result.getRowsImported()));
+        }
+
+        return ResponseEntity.ok(result);
+    }
+
     @DeleteMapping("/{entryId}")
     public ResponseEntity<?> deleteEntry(@PathVariable Long boardId,
                                         @PathVariable Long entryId,
                                         @AuthenticationPrincipal User currentUser) {
-        Board board = boardService.findById(boardId)
-            .orElseThrow(() -> new RuntimeException("Board not found"));
-        
         // Check access
-        if (!boardService.canUserAccessBoard(board, currentUser)) {
+        if (!boardService.canUserAccessBoard(boardId, currentUser)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied");
         }
         
-        shipmentEntryService.deleteById(entryId);
+        if (!shipmentEntryService.deleteByIdAndBoardId(entryId, boardId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Entry not found");
+        }
         
         // Broadcast to all users viewing this board
         webSocketService.sendBoardUpdate(boardId, "ENTRY_DELETED", Map.of("id", entryId));
@@ -112,30 +308,19 @@ public class ShipmentEntryApiController {
         return ResponseEntity.ok(Map.of("success", true));
     }
 
-    private void updateField(ShipmentEntry entry, String field, Object value) {
-        String stringValue = value != null ? value.toString() : null;
-        
-        switch (field) {
-            // Loading Info
-            case "consignee" -> entry.setConsignee(stringValue);
-            case "lighterVesselName" -> entry.setLighterVesselName(stringValue);
-            case "vesselDestination" -> entry.setVesselDestination(stringValue);
-            case "date" -> entry.setDate(stringValue != null && !stringValue.isEmpty() ? LocalDate.parse(stringValue) : null);
-            
-            // Unloading & Transit Info
-            case "challanNo" -> entry.setChallanNo(stringValue);
-            case "convertingVessel" -> entry.setConvertingVessel(stringValue);
-            case "noOfTrucks" -> entry.setNoOfTrucks(stringValue != null && !stringValue.isEmpty() ? Integer.parseInt(stringValue) : null);
-            case "dischargingLocation" -> entry.setDischargingLocation(stringValue);
-            case "finalDestination" -> entry.setFinalDestination(stringValue);
-            
-            // Product & Financials
-            case "itemName" -> entry.setItemName(stringValue);
-            case "billableQuantity" -> entry.setBillableQuantity(stringValue != null && !stringValue.isEmpty() ? new BigDecimal(stringValue) : null);
-            case "lighterCost" -> entry.setLighterCost(stringValue != null && !stringValue.isEmpty() ? new BigDecimal(stringValue) : null);
-            case "unloadCost" -> entry.setUnloadCost(stringValue != null && !stringValue.isEmpty() ? new BigDecimal(stringValue) : null);
-            case "truckCost" -> entry.setTruckCost(stringValue != null && !stringValue.isEmpty() ? new BigDecimal(stringValue) : null);
+    private Map<String, Object> buildDelta(ShipmentEntry entry, Collection<String> fields) {
+        Map<String, Object> row = buildResponse(entry);
+        Map<String, Object> delta = new HashMap<>();
+        for (String field : fields) {
+            if (row.containsKey(field)) {
+                delta.put(field, row.get(field));
+            }
+            if (COSTING_FIELDS.contains(field)) {
+                delta.put("totalUnitCosting", row.get("totalUnitCosting"));
+                delta.put("finalAmount", row.get("finalAmount"));
+            }
         }
+        return delta;
     }
 
     private Map<String, Object> buildResponse(ShipmentEntry entry) {
@@ -0,0 +1,36 @@
+package com.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of importing a challan sheet (XLSX or CSV) into a board
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BoardImportResultDTO {
+
+    private Long boardId;
+    private Integer rowsImported;
+    private Integer rowsRejected;
+    private Boolean errorsTruncated; // true when more errors occurred than are listed
+    private String error; // set when the file could not be read to the end; the rows before it were imported
+
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private Integer row; // spreadsheet row / CSV line number, 1-based
+        private String message;
+    }
+}
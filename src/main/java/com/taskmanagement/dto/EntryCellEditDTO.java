@@ -0,0 +1,18 @@
+package com.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single cell edit on a board grid: set one field of one shipment entry
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntryCellEditDTO {
+
+    private Long entryId;
+    private String field; // e.g., "consignee", "billableQuantity"
+    private Object value; // null or blank clears the cell
+}
@@ -0,0 +1,32 @@
+package com.taskmanagement.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filters, sort and keyset cursor of a board entry search; every filter is optional (null = no filter)
+ */
+@Data
+@NoArgsConstructor
+public class EntrySearchCriteria {
+
+    // Prefix matches (case-insensitive under the default MySQL collation)
+    private String consignee;
+    private String lighterVessel;
+    private String challanPrefix;
+    private String item;
+    private String destination; // final destination
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fromDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate toDate;
+
+    private String sort;   // e.g. "-date,consignee": comma-separated fields, '-' for descending; default grid order
+    private String cursor; // nextCursor of the previous page
+    private Integer limit;
+}
@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * DTO for creating and updating shipment cycles with full hierarchy
@@ -19,7 +20,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ShipmentDTO {
 
     private Long id;
@@ -59,10 +60,30 @@ public class ShipmentDTO {
     private Integer lighterCount;
     private Integer truckCount;
 
+    /**
+     * Deep copy, so a cached instance can be handed out without sharing mutable state
+     */
+    public ShipmentDTO copy() {
+        return toBuilder()
+                .lighterLoadings(copyAll(lighterLoadings, LighterLoadingDTO::copy))
+                .build();
+    }
+
+    private static <T> List<T> copyAll(List<T> items, UnaryOperator<T> copier) {
+        if (items == null) {
+            return null;
+        }
+        List<T> copies = new ArrayList<>(items.size());
+        for (T item : items) {
+            copies.add(copier.apply(item));
+        }
+        return copies;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
-    @Builder
+    @Builder(toBuilder = true)
     public static class LighterLoadingDTO {
         private Long id;
 
@@ -92,12 +113,16 @@ public class ShipmentDTO {
         private Double totalUnloadedQuantity;
         private Double remainingQuantity;
         private Boolean isBalanced;
+
+        public LighterLoadingDTO copy() {
+            return toBuilder().truckUnloadings(copyAll(truckUnloadings, TruckUnloadingDTO::copy)).build();
+        }
     }
 
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
-    @Builder
+    @Builder(toBuilder = true)
     public static class TruckUnloadingDTO {
         private Long id;
         private String challan;
@@ -129,12 +154,16 @@ public class ShipmentDTO {
         private String sourceLighterName;
         private Double totalCost;
         private Boolean canProceed;
+
+        public TruckUnloadingDTO copy() {
+            return toBuilder().productDetails(copyAll(productDetails, ProductDetailDTO::copy)).build();
+        }
     }
 
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
-    @Builder
+    @Builder(toBuilder = true)
     public static class ProductDetailDTO {
         private Long id;
 
@@ -149,5 +178,9 @@ public class ShipmentDTO {
 
         // Response field
         private Double totalCost;
+
+        public ProductDetailDTO copy() {
+            return toBuilder().build();
+        }
     }
 }
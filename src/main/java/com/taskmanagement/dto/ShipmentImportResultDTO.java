@@ -0,0 +1,38 @@
+package com.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a bulk shipment manifest import
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShipmentImportResultDTO {
+
+    private Long shipmentId;
+    private Integer lightersImported;
+    private Integer trucksImported;
+    private Integer productsImported;
+    private Integer rowsRejected;
+    private Boolean errorsTruncated; // true when more errors occurred than are listed
+    private String error; // set when the manifest could not be read to the end; the rows before it were imported
+
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private String row; // e.g., "line 17" or "lighterLoadings[3].truckUnloadings[2]"
+        private String message;
+    }
+}
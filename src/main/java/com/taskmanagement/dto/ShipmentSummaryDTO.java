@@ -0,0 +1,36 @@
+package com.taskmanagement.dto;
+
+import com.taskmanagement.enums.ShipmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Flat shipment row for list views: root fields plus the persisted running totals,
+ * without the nested lighter/truck/product hierarchy of {@link ShipmentDTO}.
+ * Field order matches the constructor projection in ShipmentCycleRepository.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShipmentSummaryDTO {
+
+    private Long id;
+    private String consignee;
+    private String motherVesselName;
+    private LocalDate arrivalDate;
+    private String itemType;
+    private ShipmentStatus status;
+    private String flowSummary;
+    private String assignedToName;
+    private Double totalIncomingQuantity;
+    private Double totalLoadedQuantity;
+    private Double totalUnloadedQuantity;
+    private Double totalCost;
+    private Integer lighterCount;
+    private Integer truckCount;
+}
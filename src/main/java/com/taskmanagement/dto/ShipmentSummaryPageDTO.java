@@ -0,0 +1,28 @@
+package com.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One keyset page of shipment summaries, ordered by arrival date then ID (newest first).
+ * Pass nextAfterDate/nextAfterId back as afterDate/afterId to fetch the next page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShipmentSummaryPageDTO {
+
+    @Builder.Default
+    private List<ShipmentSummaryDTO> shipments = new ArrayList<>();
+
+    private Boolean hasMore;
+    private LocalDate nextAfterDate;
+    private Long nextAfterId;
+}
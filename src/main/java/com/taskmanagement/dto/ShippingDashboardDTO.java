@@ -5,8 +5,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 
 /**
  * DTO for shipping dashboard analytics
@@ -14,7 +17,7 @@ import java.util.Map;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ShippingDashboardDTO {
 
     private SummaryStats summaryStats;
@@ -22,10 +25,33 @@ public class ShippingDashboardDTO {
     private List<CostBreakdown> costBreakdowns;
     private List<QuantityValidation> quantityValidations;
 
+    /**
+     * Deep copy, so a cached instance can be handed out without sharing mutable state
+     */
+    public ShippingDashboardDTO copy() {
+        return toBuilder()
+                .summaryStats(summaryStats != null ? summaryStats.toBuilder().build() : null)
+                .flowVisualizations(copyAll(flowVisualizations, FlowVisualization::copy))
+                .costBreakdowns(copyAll(costBreakdowns, item -> item.toBuilder().build()))
+                .quantityValidations(copyAll(quantityValidations, item -> item.toBuilder().build()))
+                .build();
+    }
+
+    private static <T> List<T> copyAll(List<T> items, UnaryOperator<T> copier) {
+        if (items == null) {
+            return null;
+        }
+        List<T> copies = new ArrayList<>(items.size());
+        for (T item : items) {
+            copies.add(copier.apply(item));
+        }
+        return copies;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
-    @Builder
+    @Builder(toBuilder = true)
     public static class SummaryStats {
         private Long totalShipments;
         private Long pendingShipments;
@@ -41,7 +67,7 @@ public class ShippingDashboardDTO {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
-    @Builder
+    @Builder(toBuilder = true)
     public static class FlowVisualization {
         private Long shipmentId;
         private String motherVesselName;
@@ -50,12 +76,18 @@ public class ShippingDashboardDTO {
         private Integer lightersCount;
         private Integer trucksCount;
         private Map<String, Integer> lighterToTruckMap; // Lighter name -> truck count
+
+        public FlowVisualization copy() {
+            return toBuilder()
+                    .lighterToTruckMap(lighterToTruckMap != null ? new LinkedHashMap<>(lighterToTruckMap) : null)
+                    .build();
+        }
     }
 
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
-    @Builder
+    @Builder(toBuilder = true)
     public static class CostBreakdown {
         private String stage; // "Lighter", "Unloading", "Truck Transport"
         private Double totalCost;
@@ -65,7 +97,7 @@ public class ShippingDashboardDTO {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
-    @Builder
+    @Builder(toBuilder = true)
     public static class QuantityValidation {
         private Long shipmentId;
         private String motherVesselName;
@@ -38,8 +38,9 @@ public class Group {
     @Column(length = 7)
     private String color = "#0086c0";
 
+    // Sparse ordering key, see RowOrderingService
     @Column(nullable = false)
-    private Integer position = 0;
+    private Long position = 0L;
 
     @OneToMany(mappedBy = "group", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Task> tasks = new ArrayList<>();
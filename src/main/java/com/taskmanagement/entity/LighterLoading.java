@@ -27,6 +27,11 @@ public class LighterLoading {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic lock: concurrent updates of the running totals fail instead of overwriting each other
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
+
     @Column(nullable = false, name = "lighter_name")
     private String lighterName; // e.g., "MV A&J Traders 04"
 
@@ -52,6 +57,20 @@ public class LighterLoading {
     @Column(name = "lighter_document_path")
     private String lighterDocumentPath; // File upload per lighter
 
+    // Running totals over this lighter's trucks, kept up to date as deltas by the
+    // helper methods below and recomputed from scratch by ShipmentTotalsRepairJob; never NULL
+    @Column(name = "total_unloaded_quantity", nullable = false, columnDefinition = "DOUBLE DEFAULT 0")
+    @Builder.Default
+    private Double totalUnloadedQuantity = 0.0;
+
+    @Column(name = "total_truck_cost", nullable = false, columnDefinition = "DOUBLE DEFAULT 0")
+    @Builder.Default
+    private Double totalTruckCost = 0.0; // Unloading + product costs of all trucks
+
+    @Column(name = "truck_count", nullable = false, columnDefinition = "INT DEFAULT 0")
+    @Builder.Default
+    private Integer truckCount = 0;
+
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "shipment_cycle_id", nullable = false)
@@ -74,43 +93,59 @@ public class LighterLoading {
     public void addTruckUnloading(TruckUnloading truckUnloading) {
         truckUnloadings.add(truckUnloading);
         truckUnloading.setLighterLoading(this);
+        applyTruckDelta(1, ShipmentCycle.orZero(truckUnloading.getUnloadedQuantity()), truckUnloading.calculateTotalCost());
+    }
+
+    /**
+     * Like addTruckUnloading, but only this lighter's running totals are updated; the caller
+     * adds the truck to the shipment's totals in the database (ShipmentCycleRepository.addTruckTotals)
+     */
+    public void appendTruckUnloading(TruckUnloading truckUnloading) {
+        truckUnloadings.add(truckUnloading);
+        truckUnloading.setLighterLoading(this);
+        applyOwnTruckDelta(1, ShipmentCycle.orZero(truckUnloading.getUnloadedQuantity()), truckUnloading.calculateTotalCost());
     }
 
     public void removeTruckUnloading(TruckUnloading truckUnloading) {
         truckUnloadings.remove(truckUnloading);
         truckUnloading.setLighterLoading(null);
+        applyTruckDelta(-1, -ShipmentCycle.orZero(truckUnloading.getUnloadedQuantity()), -truckUnloading.calculateTotalCost());
     }
 
     /**
-     * Calculate total cost including lighter cost and all truck unloading costs
+     * Apply a change to this lighter's trucks to its running totals and to the shipment's
      */
-    public Double calculateTotalCost() {
-        Double truckCosts = truckUnloadings.stream()
-                .mapToDouble(TruckUnloading::calculateTotalCost)
-                .sum();
-        return (lighterCost != null ? lighterCost : 0.0) + truckCosts;
+    void applyTruckDelta(int trucks, double unloadedQuantity, double cost) {
+        applyOwnTruckDelta(trucks, unloadedQuantity, cost);
+        if (shipmentCycle != null) {
+            shipmentCycle.applyTruckDelta(trucks, unloadedQuantity, cost);
+        }
+    }
+
+    private void applyOwnTruckDelta(int trucks, double unloadedQuantity, double cost) {
+        truckCount = ShipmentCycle.orZero(truckCount) + trucks;
+        totalUnloadedQuantity = ShipmentCycle.orZero(totalUnloadedQuantity) + unloadedQuantity;
+        totalTruckCost = ShipmentCycle.orZero(totalTruckCost) + cost;
     }
 
     /**
-     * Calculate total unloaded quantity from this lighter to all trucks
+     * Calculate total cost including lighter cost and all truck unloading costs
      */
-    public Double getTotalUnloadedQuantity() {
-        return truckUnloadings.stream()
-                .mapToDouble(TruckUnloading::getUnloadedQuantity)
-                .sum();
+    public Double calculateTotalCost() {
+        return (lighterCost != null ? lighterCost : 0.0) + ShipmentCycle.orZero(totalTruckCost);
     }
 
     /**
      * Validate that unloaded quantity doesn't exceed loaded quantity
      */
     public boolean isQuantityBalanced() {
-        return getTotalUnloadedQuantity() <= loadedQuantity;
+        return ShipmentCycle.orZero(totalUnloadedQuantity) <= loadedQuantity;
     }
 
     /**
      * Get remaining quantity available for unloading
      */
     public Double getRemainingQuantity() {
-        return loadedQuantity - getTotalUnloadedQuantity();
+        return loadedQuantity - ShipmentCycle.orZero(totalUnloadedQuantity);
     }
 }
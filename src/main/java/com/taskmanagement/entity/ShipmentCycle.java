@@ -16,7 +16,9 @@ import java.util.List;
  * This is the root of the hierarchical flow: Mother Vessel -> Lighters -> Trucks -> Products
  */
 @Entity
-@Table(name = "shipment_cycles")
+@Table(name = "shipment_cycles", indexes = {
+    @Index(name = "idx_shipment_institute_arrival", columnList = "institute_id, arrival_date, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,6 +29,11 @@ public class ShipmentCycle {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic lock: concurrent updates of the running totals fail instead of overwriting each other
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
+
     @Column(nullable = false)
     private String consignee; // e.g., "PDL"
 
@@ -52,6 +59,29 @@ public class ShipmentCycle {
     @Column(name = "flow_summary", length = 1000)
     private String flowSummary; // Auto-generated: "Unloaded from 1 Mother Vessel to 3 Lighters, then to 12 Trucks"
 
+    // Running totals over the whole hierarchy, kept up to date as deltas by the helper
+    // methods below and recomputed from scratch by ShipmentTotalsRepairJob. Never NULL: the
+    // set-based updates add to them in SQL
+    @Column(name = "total_loaded_quantity", nullable = false, columnDefinition = "DOUBLE DEFAULT 0")
+    @Builder.Default
+    private Double totalLoadedQuantity = 0.0;
+
+    @Column(name = "total_unloaded_quantity", nullable = false, columnDefinition = "DOUBLE DEFAULT 0")
+    @Builder.Default
+    private Double totalUnloadedQuantity = 0.0;
+
+    @Column(name = "total_cost", nullable = false, columnDefinition = "DOUBLE DEFAULT 0")
+    @Builder.Default
+    private Double totalCost = 0.0;
+
+    @Column(name = "lighter_count", nullable = false, columnDefinition = "INT DEFAULT 0")
+    @Builder.Default
+    private Integer lighterCount = 0;
+
+    @Column(name = "truck_count", nullable = false, columnDefinition = "INT DEFAULT 0")
+    @Builder.Default
+    private Integer truckCount = 0;
+
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "institute_id", nullable = false)
@@ -82,43 +112,58 @@ public class ShipmentCycle {
     public void addLighterLoading(LighterLoading lighterLoading) {
         lighterLoadings.add(lighterLoading);
         lighterLoading.setShipmentCycle(this);
+        applyLighterDelta(lighterLoading, 1);
     }
 
     public void removeLighterLoading(LighterLoading lighterLoading) {
         lighterLoadings.remove(lighterLoading);
         lighterLoading.setShipmentCycle(null);
+        applyLighterDelta(lighterLoading, -1);
+    }
+
+    private void applyLighterDelta(LighterLoading lighterLoading, int sign) {
+        lighterCount = orZero(lighterCount) + sign;
+        totalLoadedQuantity = orZero(totalLoadedQuantity) + sign * orZero(lighterLoading.getLoadedQuantity());
+        applyTruckDelta(sign * orZero(lighterLoading.getTruckCount()),
+                sign * orZero(lighterLoading.getTotalUnloadedQuantity()),
+                sign * lighterLoading.calculateTotalCost());
     }
 
     /**
-     * Calculate total cost from all lighter loadings
+     * Apply a change below one of this shipment's lighters to the running totals
      */
-    public Double calculateTotalCost() {
-        return lighterLoadings.stream()
-                .mapToDouble(LighterLoading::calculateTotalCost)
-                .sum();
+    void applyTruckDelta(int trucks, double unloadedQuantity, double cost) {
+        truckCount = orZero(truckCount) + trucks;
+        totalUnloadedQuantity = orZero(totalUnloadedQuantity) + unloadedQuantity;
+        totalCost = orZero(totalCost) + cost;
     }
 
     /**
-     * Calculate total loaded quantity across all lighters
+     * Total cost of all lighter loadings (running total)
      */
-    public Double getTotalLoadedQuantity() {
-        return lighterLoadings.stream()
-                .mapToDouble(LighterLoading::getLoadedQuantity)
-                .sum();
+    public Double calculateTotalCost() {
+        return orZero(totalCost);
     }
 
     /**
      * Auto-generate flow summary
      */
     public void generateFlowSummary() {
-        int lighterCount = lighterLoadings.size();
-        int truckCount = lighterLoadings.stream()
-                .mapToInt(lighter -> lighter.getTruckUnloadings().size())
-                .sum();
-        
-        this.flowSummary = String.format(
+        this.flowSummary = formatFlowSummary(motherVesselName, orZero(lighterCount), orZero(truckCount));
+    }
+
+    public static String formatFlowSummary(String motherVesselName, int lighterCount, int truckCount) {
+        return String.format(
             "Unloaded from 1 Mother Vessel (%s) to %d Lighter(s), then to %d Truck(s)",
             motherVesselName, lighterCount, truckCount
         );
     }
+
+    static double orZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
 }
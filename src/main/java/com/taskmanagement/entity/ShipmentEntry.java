@@ -1,9 +1,11 @@
 package com.taskmanagement.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -14,8 +16,17 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "shipment_entries", indexes = {
     @Index(name = "idx_board", columnList = "board_id"),
+    @Index(name = "idx_board_position", columnList = "board_id, position, id"),
     @Index(name = "idx_challan", columnList = "challan_no"),
-    @Index(name = "idx_date", columnList = "date")
+    @Index(name = "idx_date", columnList = "date"),
+    @Index(name = "idx_board_date", columnList = "board_id, date"),
+    @Index(name = "idx_board_consignee", columnList = "board_id, consignee"),
+    @Index(name = "idx_board_lighter_vessel", columnList = "board_id, lighter_vessel_name"),
+    @Index(name = "idx_board_challan", columnList = "board_id, challan_no"),
+    @Index(name = "idx_board_item", columnList = "board_id, item_name"),
+    @Index(name = "idx_board_final_destination", columnList = "board_id, final_destination"),
+    @Index(name = "idx_board_final_amount", columnList = "board_id, final_amount"),
+    @Index(name = "idx_board_unit_costing", columnList = "board_id, total_unit_costing")
 }, uniqueConstraints = {
     @UniqueConstraint(name = "uk_challan_no", columnNames = "challan_no")
 })
@@ -32,8 +43,9 @@ public class ShipmentEntry {
     @JoinColumn(name = "board_id", nullable = false)
     private Board board;
 
+    // Sparse ordering key, see RowOrderingService
     @Column(nullable = false)
-    private Integer position = 0;
+    private Long position = 0L;
 
     // Group 1: Loading Info
     @Column(name = "consignee")
@@ -80,6 +92,20 @@ public class ShipmentEntry {
     @Column(name = "truck_cost", precision = 12, scale = 2)
     private BigDecimal truckCost;
 
+    // Calculated fields: stored generated columns, so SQL can sort, filter, index and sum them.
+    // Never written by the application; the setters of the inputs keep the in-memory copies current.
+    @Setter(AccessLevel.NONE)
+    @Column(name = "total_unit_costing", precision = 14, scale = 2, insertable = false, updatable = false,
+            columnDefinition = "DECIMAL(14,2) GENERATED ALWAYS AS " +
+                    "(COALESCE(lighter_cost, 0) + COALESCE(unload_cost, 0) + COALESCE(truck_cost, 0)) STORED")
+    private BigDecimal totalUnitCosting = BigDecimal.ZERO;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "final_amount", precision = 26, scale = 4, insertable = false, updatable = false,
+            columnDefinition = "DECIMAL(26,4) GENERATED ALWAYS AS (COALESCE(billable_quantity, 0) * " +
+                    "(COALESCE(lighter_cost, 0) + COALESCE(unload_cost, 0) + COALESCE(truck_cost, 0))) STORED")
+    private BigDecimal finalAmount = BigDecimal.ZERO;
+
     // Audit fields
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by")
@@ -97,18 +123,33 @@ public class ShipmentEntry {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    // Calculated fields (not stored in DB, computed on-the-fly)
-    @Transient
-    public BigDecimal getTotalUnitCosting() {
+    public void setBillableQuantity(BigDecimal billableQuantity) {
+        this.billableQuantity = billableQuantity;
+        recalculate();
+    }
+
+    public void setLighterCost(BigDecimal lighterCost) {
+        this.lighterCost = lighterCost;
+        recalculate();
+    }
+
+    public void setUnloadCost(BigDecimal unloadCost) {
+        this.unloadCost = unloadCost;
+        recalculate();
+    }
+
+    public void setTruckCost(BigDecimal truckCost) {
+        this.truckCost = truckCost;
+        recalculate();
+    }
+
+    // Same expressions as the generated columns
+    private void recalculate() {
         BigDecimal lighter = lighterCost != null ? lighterCost : BigDecimal.ZERO;
         BigDecimal unload = unloadCost != null ? unloadCost : BigDecimal.ZERO;
         BigDecimal truck = truckCost != null ? truckCost : BigDecimal.ZERO;
-        return lighter.add(unload).add(truck);
-    }
-
-    @Transient
-    public BigDecimal getFinalAmount() {
         BigDecimal quantity = billableQuantity != null ? billableQuantity : BigDecimal.ZERO;
-        return quantity.multiply(getTotalUnitCosting());
+        totalUnitCosting = lighter.add(unload).add(truck);
+        finalAmount = quantity.multiply(totalUnitCosting);
     }
 }
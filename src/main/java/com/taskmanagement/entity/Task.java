@@ -64,8 +64,9 @@ public class Task {
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
 
+    // Sparse ordering key, see RowOrderingService
     @Column(nullable = false)
-    private Integer position = 0;
+    private Long position = 0L;
 
     @Column(name = "number_value", precision = 10, scale = 2)
     private BigDecimal numberValue;
@@ -83,11 +83,17 @@ public class TruckUnloading {
     public void addProductDetail(ProductDetail productDetail) {
         productDetails.add(productDetail);
         productDetail.setTruckUnloading(this);
+        if (lighterLoading != null) {
+            lighterLoading.applyTruckDelta(0, 0.0, productDetail.calculateTotalCost());
+        }
     }
 
     public void removeProductDetail(ProductDetail productDetail) {
         productDetails.remove(productDetail);
         productDetail.setTruckUnloading(null);
+        if (lighterLoading != null) {
+            lighterLoading.applyTruckDelta(0, 0.0, -productDetail.calculateTotalCost());
+        }
     }
 
     /**
@@ -21,6 +21,11 @@ public interface BoardRepository extends JpaRepository<Board, Long> {
     @Query("SELECT b FROM Board b JOIN b.members m WHERE m.id = :userId AND b.isStarred = true")
     List<Board> findStarredBoardsByUserId(@Param("userId") Long userId);
     
+    // Creator or member, without loading the members collection
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Board b WHERE b.id = :boardId " +
+           "AND (b.createdBy.id = :userId OR EXISTS (SELECT 1 FROM Board mb JOIN mb.members m WHERE mb.id = b.id AND m.id = :userId))")
+    boolean canAccess(@Param("boardId") Long boardId, @Param("userId") Long userId);
+
     @Query("SELECT COUNT(b) FROM Board b WHERE b.institute.id = :instituteId")
     long countByInstituteId(@Param("instituteId") Long instituteId);
 }
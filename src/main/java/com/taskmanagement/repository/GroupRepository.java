@@ -14,5 +14,5 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
     List<Group> findByBoardIdOrderByPositionAsc(Long boardId);
     
     @Query("SELECT MAX(g.position) FROM Group g WHERE g.board.id = :boardId")
-    Integer findMaxPositionByBoardId(@Param("boardId") Long boardId);
+    Long findMaxPositionByBoardId(@Param("boardId") Long boardId);
 }
@@ -3,11 +3,13 @@ package com.taskmanagement.repository;
 import com.taskmanagement.entity.LighterLoading;
 import com.taskmanagement.enums.LoadUnloadStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +25,12 @@ public interface LighterLoadingRepository extends JpaRepository<LighterLoading,
            "WHERE ll.id = :id")
     Optional<LighterLoading> findByIdWithTruckUnloadings(@Param("id") Long id);
 
+    // Initializes the truck collections of already-loaded lighters in one round trip
+    @Query("SELECT DISTINCT ll FROM LighterLoading ll " +
+           "LEFT JOIN FETCH ll.truckUnloadings " +
+           "WHERE ll.id IN :ids")
+    List<LighterLoading> findAllWithTruckUnloadingsByIdIn(@Param("ids") Collection<Long> ids);
+
     List<LighterLoading> findByLighterNameContainingIgnoreCase(String lighterName);
 
     List<LighterLoading> findByLoadingDateBetween(LocalDate startDate, LocalDate endDate);
@@ -36,4 +44,29 @@ public interface LighterLoadingRepository extends JpaRepository<LighterLoading,
 
     @Query("SELECT COUNT(ll) FROM LighterLoading ll WHERE ll.shipmentCycle.id = :shipmentCycleId")
     Long countByShipmentCycle(@Param("shipmentCycleId") Long shipmentCycleId);
+
+    // Each row is [shipment cycle id, lighter name, truck unloading count]
+    @Query("SELECT ll.shipmentCycle.id, ll.lighterName, COUNT(tu) " +
+           "FROM LighterLoading ll LEFT JOIN ll.truckUnloadings tu " +
+           "WHERE ll.shipmentCycle.institute.id = :instituteId " +
+           "GROUP BY ll.id, ll.shipmentCycle.id, ll.lighterName")
+    List<Object[]> getTruckCountsByInstitute(@Param("instituteId") Long instituteId);
+
+    @Query("SELECT COALESCE(SUM(ll.lighterCost), 0) FROM LighterLoading ll " +
+           "WHERE ll.shipmentCycle.institute.id = :instituteId")
+    Double sumLighterCostByInstitute(@Param("instituteId") Long instituteId);
+
+    // Recomputes the running totals of every lighter from its trucks and products (and bumps the version)
+    @Modifying
+    @Query("UPDATE LighterLoading ll SET " +
+           "ll.version = ll.version + 1, " +
+           "ll.truckCount = (SELECT CAST(COUNT(tu) AS Integer) FROM TruckUnloading tu WHERE tu.lighterLoading.id = ll.id), " +
+           "ll.totalUnloadedQuantity = (SELECT COALESCE(SUM(tu.unloadedQuantity), 0) FROM TruckUnloading tu " +
+           "    WHERE tu.lighterLoading.id = ll.id), " +
+           "ll.totalTruckCost = (SELECT COALESCE(SUM(COALESCE(tu.unloadingCost, 0)), 0) FROM TruckUnloading tu " +
+           "    WHERE tu.lighterLoading.id = ll.id) " +
+           "  + (SELECT COALESCE(SUM(COALESCE(pd.lighterCost, 0) + COALESCE(pd.unloadingCost, 0) " +
+           "    + COALESCE(pd.truckTransportCost, 0)), 0) FROM ProductDetail pd " +
+           "    WHERE pd.truckUnloading.lighterLoading.id = ll.id)")
+    int recalculateAllTotals();
 }
@@ -28,4 +28,10 @@ public interface ProductDetailRepository extends JpaRepository<ProductDetail, Lo
            "WHERE pd.truckUnloading.lighterLoading.shipmentCycle.id = :shipmentCycleId " +
            "GROUP BY pd.item")
     List<Object[]> getProductSummaryByShipment(@Param("shipmentCycleId") Long shipmentCycleId);
+
+    @Query("SELECT COALESCE(SUM(COALESCE(pd.lighterCost, 0) + COALESCE(pd.unloadingCost, 0) " +
+           "+ COALESCE(pd.truckTransportCost, 0)), 0) " +
+           "FROM ProductDetail pd " +
+           "WHERE pd.truckUnloading.lighterLoading.shipmentCycle.institute.id = :instituteId")
+    Double sumTotalCostByInstitute(@Param("instituteId") Long instituteId);
 }
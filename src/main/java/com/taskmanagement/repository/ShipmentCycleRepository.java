@@ -1,8 +1,11 @@
 package com.taskmanagement.repository;
 
+import com.taskmanagement.dto.ShipmentSummaryDTO;
 import com.taskmanagement.entity.ShipmentCycle;
 import com.taskmanagement.enums.ShipmentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -28,12 +31,16 @@ public interface ShipmentCycleRepository extends JpaRepository<ShipmentCycle, Lo
 
     // NOTE: Avoid fetching multiple bag collections in one query to prevent
     // org.hibernate.loader.MultipleBagFetchException.
-    // We fetch lighters here; truck unloadings will be loaded lazily as needed.
+    // We fetch lighters here; ShipmentHierarchyLoader fetches the deeper levels
+    // with one query per level.
     @Query("SELECT s FROM ShipmentCycle s " +
            "LEFT JOIN FETCH s.lighterLoadings ll " +
            "WHERE s.id = :id")
     Optional<ShipmentCycle> findByIdWithFullHierarchy(@Param("id") Long id);
 
+    @Query("SELECT s.institute.id FROM ShipmentCycle s WHERE s.id = :id")
+    Optional<Long> findInstituteIdById(@Param("id") Long id);
+
     List<ShipmentCycle> findByConsigneeContainingIgnoreCase(String consignee);
 
     List<ShipmentCycle> findByMotherVesselNameContainingIgnoreCase(String vesselName);
@@ -43,9 +50,92 @@ public interface ShipmentCycleRepository extends JpaRepository<ShipmentCycle, Lo
            "ORDER BY s.arrivalDate DESC")
     List<ShipmentCycle> findRecentByInstitute(@Param("instituteId") Long instituteId);
 
+    // Keyset page over (arrivalDate, id) descending; every filter is optional (null = no filter).
+    // Combines the filters of findByInstituteIdAndStatus / findByInstituteIdAndArrivalDateBetween and the
+    // order of findRecentByInstitute in one projection, since those return unbounded entity lists.
+    @Query("SELECT new com.taskmanagement.dto.ShipmentSummaryDTO(" +
+           "s.id, s.consignee, s.motherVesselName, s.arrivalDate, s.itemType, s.status, s.flowSummary, " +
+           "a.fullName, s.totalIncomingQuantity, s.totalLoadedQuantity, s.totalUnloadedQuantity, " +
+           "s.totalCost, s.lighterCount, s.truckCount) " +
+           "FROM ShipmentCycle s LEFT JOIN s.assignedTo a " +
+           "WHERE s.institute.id = :instituteId " +
+           "AND (:status IS NULL OR s.status = :status) " +
+           "AND (:consignee IS NULL OR LOWER(s.consignee) LIKE LOWER(CONCAT('%', :consignee, '%'))) " +
+           "AND (:vessel IS NULL OR LOWER(s.motherVesselName) LIKE LOWER(CONCAT('%', :vessel, '%'))) " +
+           "AND (:fromDate IS NULL OR s.arrivalDate >= :fromDate) " +
+           "AND (:toDate IS NULL OR s.arrivalDate <= :toDate) " +
+           "AND (:afterDate IS NULL OR s.arrivalDate < :afterDate " +
+           "     OR (s.arrivalDate = :afterDate AND s.id < :afterId)) " +
+           "ORDER BY s.arrivalDate DESC, s.id DESC")
+    List<ShipmentSummaryDTO> findSummaryPage(@Param("instituteId") Long instituteId,
+                                             @Param("status") ShipmentStatus status,
+                                             @Param("consignee") String consignee,
+                                             @Param("vessel") String vessel,
+                                             @Param("fromDate") LocalDate fromDate,
+                                             @Param("toDate") LocalDate toDate,
+                                             @Param("afterDate") LocalDate afterDate,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
     @Query("SELECT COUNT(s) FROM ShipmentCycle s WHERE s.institute.id = :instituteId AND s.status = :status")
     Long countByInstituteAndStatus(@Param("instituteId") Long instituteId, @Param("status") ShipmentStatus status);
 
     @Query("SELECT SUM(s.totalIncomingQuantity) FROM ShipmentCycle s WHERE s.institute.id = :instituteId")
     Double sumTotalQuantityByInstitute(@Param("instituteId") Long instituteId);
+
+    // Dashboard projections: each row is [status, shipment count, sum of incoming quantity]
+    @Query("SELECT s.status, COUNT(s), COALESCE(SUM(s.totalIncomingQuantity), 0) " +
+           "FROM ShipmentCycle s WHERE s.institute.id = :instituteId " +
+           "GROUP BY s.status")
+    List<Object[]> getStatusSummaryByInstitute(@Param("instituteId") Long instituteId);
+
+    // Each row is [id, mother vessel name, consignee, flow summary]
+    @Query("SELECT s.id, s.motherVesselName, s.consignee, s.flowSummary " +
+           "FROM ShipmentCycle s WHERE s.institute.id = :instituteId " +
+           "ORDER BY s.id")
+    List<Object[]> getFlowRowsByInstitute(@Param("instituteId") Long instituteId);
+
+    // Adds trucks registered on one of the shipment's lighters to its running totals in place, so
+    // registrations on different lighters never conflict on the shipment row. The flow summary is
+    // rebuilt with the same text as ShipmentCycle.formatFlowSummary. Bumps the version, so a
+    // versioned write of the shipment (lighter registration, edit) with older totals is retried.
+    // The flow summary is assigned before the truck count: MySQL evaluates SET assignments left to
+    // right, so a later assignment would read the already incremented count.
+    @Modifying
+    @Query("UPDATE ShipmentCycle s SET " +
+           "s.flowSummary = CONCAT('Unloaded from 1 Mother Vessel (', s.motherVesselName, ') to ', " +
+           "    CAST(COALESCE(s.lighterCount, 0) AS String), ' Lighter(s), then to ', " +
+           "    CAST(COALESCE(s.truckCount, 0) + :trucks AS String), ' Truck(s)'), " +
+           "s.truckCount = COALESCE(s.truckCount, 0) + :trucks, " +
+           "s.totalUnloadedQuantity = COALESCE(s.totalUnloadedQuantity, 0) + :unloadedQuantity, " +
+           "s.totalCost = COALESCE(s.totalCost, 0) + :cost, " +
+           "s.version = s.version + 1 " +
+           "WHERE s.id = :id")
+    int addTruckTotals(@Param("id") Long id,
+                       @Param("trucks") int trucks,
+                       @Param("unloadedQuantity") double unloadedQuantity,
+                       @Param("cost") double cost);
+
+    // True when some shipment's running totals were never backfilled: NULL, or no lighters
+    // counted although it has some (columns added by ddl-auto with their default)
+    @Query("SELECT COUNT(s) > 0 FROM ShipmentCycle s WHERE s.lighterCount IS NULL OR s.totalCost IS NULL " +
+           "OR (s.lighterCount = 0 AND EXISTS (SELECT ll.id FROM LighterLoading ll WHERE ll.shipmentCycle.id = s.id))")
+    boolean existsUnfilledTotals();
+
+    // Recomputes the running totals of every shipment from its lighters' running totals,
+    // so lighter totals must be recalculated first. Bumps the version, so a concurrent
+    // writer holding totals read before the repair fails instead of overwriting it.
+    @Modifying
+    @Query("UPDATE ShipmentCycle s SET " +
+           "s.version = s.version + 1, " +
+           "s.lighterCount = (SELECT CAST(COUNT(ll) AS Integer) FROM LighterLoading ll WHERE ll.shipmentCycle.id = s.id), " +
+           "s.truckCount = (SELECT CAST(COALESCE(SUM(ll.truckCount), 0) AS Integer) FROM LighterLoading ll " +
+           "    WHERE ll.shipmentCycle.id = s.id), " +
+           "s.totalLoadedQuantity = (SELECT COALESCE(SUM(ll.loadedQuantity), 0) FROM LighterLoading ll " +
+           "    WHERE ll.shipmentCycle.id = s.id), " +
+           "s.totalUnloadedQuantity = (SELECT COALESCE(SUM(ll.totalUnloadedQuantity), 0) FROM LighterLoading ll " +
+           "    WHERE ll.shipmentCycle.id = s.id), " +
+           "s.totalCost = (SELECT COALESCE(SUM(COALESCE(ll.lighterCost, 0) + ll.totalTruckCost), 0) FROM LighterLoading ll " +
+           "    WHERE ll.shipmentCycle.id = s.id)")
+    int recalculateAllTotals();
 }
@@ -1,17 +1,73 @@
 package com.taskmanagement.repository;
 
 import com.taskmanagement.entity.ShipmentEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ShipmentEntryRepository extends JpaRepository<ShipmentEntry, Long> {
     
     List<ShipmentEntry> findByBoardIdOrderByPositionAsc(Long boardId);
+
+    List<ShipmentEntry> findByBoardIdAndIdIn(Long boardId, Collection<Long> ids);
+
+    /**
+     * One window of a board's entries in grid order, starting after the (position, id) cursor
+     */
+    @Query("SELECT e FROM ShipmentEntry e WHERE e.board.id = :boardId " +
+           "AND (:afterPosition IS NULL OR e.position > :afterPosition " +
+           "     OR (e.position = :afterPosition AND e.id > :afterId)) " +
+           "ORDER BY e.position ASC, e.id ASC")
+    List<ShipmentEntry> findWindow(@Param("boardId") Long boardId,
+                                   @Param("afterPosition") Long afterPosition,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
     
     boolean existsByChallanNo(String challanNo);
     
     Long countByBoardId(Long boardId);
+
+    Optional<ShipmentEntry> findByIdAndBoardId(Long id, Long boardId);
+
+    @Modifying
+    @Query("DELETE FROM ShipmentEntry e WHERE e.id = :id AND e.board.id = :boardId")
+    int deleteByIdAndBoardId(@Param("id") Long id, @Param("boardId") Long boardId);
+
+    /**
+     * [row count, latest updatedAt] of a board's entries; changes whenever a row is added, edited or deleted
+     */
+    @Query("SELECT COUNT(e), MAX(e.updatedAt) FROM ShipmentEntry e WHERE e.board.id = :boardId")
+    List<Object[]> getChangeStampByBoardId(@Param("boardId") Long boardId);
+
+    /**
+     * [board id, entry count, revenue] for each of the given boards that has entries, where revenue
+     * is the sum of the stored finalAmount column
+     */
+    @Query("SELECT e.board.id, COUNT(e), SUM(e.finalAmount) " +
+           "FROM ShipmentEntry e WHERE e.board.id IN :boardIds GROUP BY e.board.id")
+    List<Object[]> sumRevenueByBoardIds(@Param("boardIds") Collection<Long> boardIds);
+
+    /**
+     * All entries of a board in grid order, read through a cursor in fetch-size chunks
+     * (MySQL needs useCursorFetch=true on the JDBC URL for the fetch size to apply).
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM ShipmentEntry e WHERE e.board.id = :boardId ORDER BY e.position ASC, e.id ASC")
+    Stream<ShipmentEntry> streamByBoardId(@Param("boardId") Long boardId);
 }
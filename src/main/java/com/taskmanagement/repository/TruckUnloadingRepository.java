@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +24,12 @@ public interface TruckUnloadingRepository extends JpaRepository<TruckUnloading,
            "WHERE tu.id = :id")
     Optional<TruckUnloading> findByIdWithProductDetails(@Param("id") Long id);
 
+    // Initializes the product collections of already-loaded trucks in one round trip
+    @Query("SELECT DISTINCT tu FROM TruckUnloading tu " +
+           "LEFT JOIN FETCH tu.productDetails " +
+           "WHERE tu.id IN :ids")
+    List<TruckUnloading> findAllWithProductDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
     List<TruckUnloading> findByUnloadingDateBetween(LocalDate startDate, LocalDate endDate);
 
     List<TruckUnloading> findByDestinationContainingIgnoreCase(String destination);
@@ -43,4 +50,8 @@ public interface TruckUnloadingRepository extends JpaRepository<TruckUnloading,
            "WHERE tu.dependsOnLighterCompletion = true " +
            "AND tu.lighterLoading.status != 'LOADED'")
     List<TruckUnloading> findPendingDependentUnloadings();
+
+    @Query("SELECT COALESCE(SUM(tu.unloadingCost), 0) FROM TruckUnloading tu " +
+           "WHERE tu.lighterLoading.shipmentCycle.institute.id = :instituteId")
+    Double sumUnloadingCostByInstitute(@Param("instituteId") Long instituteId);
 }
@@ -0,0 +1,45 @@
+package com.taskmanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Caches whether a user may access a board (creator or member), keyed by (boardId, userId).
+ * Entries are dropped when a {@link BoardAccessChangedEvent} is published, after the
+ * publishing transaction commits, and otherwise expire after their TTL (which also bounds
+ * how long another node may keep answering from before a membership change).
+ */
+@Component
+public class BoardAccessCache {
+
+    private final BoundedCache<Key, Boolean> access;
+
+    public BoardAccessCache(@Value("${board.access-cache.max-size:10000}") int maxSize,
+                            @Value("${board.access-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.access = new BoundedCache<>("boardAccess", maxSize, ttlSeconds);
+    }
+
+    public boolean isAllowed(Long boardId, Long userId, Function<Key, Boolean> loader) {
+        return access.get(new Key(boardId, userId), loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoardAccessChanged(BoardAccessChangedEvent event) {
+        if (event.getUserId() != null) {
+            access.invalidate(new Key(event.getBoardId(), event.getUserId()));
+        } else {
+            access.invalidateAll(); // keys are per user; boards are rarely deleted
+        }
+    }
+
+    public Map<String, Object> stats() {
+        return access.stats();
+    }
+
+    public record Key(Long boardId, Long userId) {
+    }
+}
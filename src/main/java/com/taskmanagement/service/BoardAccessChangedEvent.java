@@ -0,0 +1,15 @@
+package com.taskmanagement.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when who may access a board changes (member added or removed, board created or deleted)
+ */
+@Getter
+@AllArgsConstructor
+public class BoardAccessChangedEvent {
+
+    private final Long boardId;
+    private final Long userId; // null: every user of the board
+}
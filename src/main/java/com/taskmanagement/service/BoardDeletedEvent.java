@@ -0,0 +1,14 @@
+package com.taskmanagement.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a board is deleted, so per-board state held in memory can be dropped
+ */
+@Getter
+@AllArgsConstructor
+public class BoardDeletedEvent {
+
+    private final Long boardId;
+}
@@ -0,0 +1,130 @@
+package com.taskmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.util.*;
+
+/**
+ * Compact encoding of board update frames (opt-in; JSON maps stay the default).
+ *
+ * Field names are replaced by positions: a frame is {@code [action, node, seq, data]} where
+ * action is an index into ACTIONS, and data is a positional array laid out by LAYOUTS
+ * (ENTRY_CREATED carries the full row in ENTRY_FIELDS order). ENTRIES_PATCHED data is a list
+ * of {@code [id, fieldIndex, value, fieldIndex, value, ...]} arrays. Names missing from the
+ * dictionaries are sent as strings, and actions without a layout keep their data map.
+ * The timestamp is dropped. The dictionaries are rendered into the board page ({@link #schema()}).
+ */
+@Component
+public class BoardFrameCodec {
+
+    public static final MimeType COMPACT_CONTENT_TYPE = new MimeType("application", "vnd.board-frame.compact+json");
+
+    static final List<String> ACTIONS = List.of(
+        "ENTRY_CREATED", BoardUpdateBroadcaster.ENTRIES_PATCHED, "ENTRY_MOVED", "ENTRY_DELETED", "ENTRIES_IMPORTED"
+    );
+
+    // Keys of an entry row as the API returns it (ShipmentEntryApiController.buildResponse)
+    static final List<String> ENTRY_FIELDS = List.of(
+        "id", "consignee", "lighterVesselName", "vesselDestination", "date", "challanNo", "convertingVessel",
+        "noOfTrucks", "dischargingLocation", "finalDestination", "itemName", "billableQuantity",
+        "lighterCost", "unloadCost", "truckCost", "totalUnitCosting", "finalAmount"
+    );
+
+    static final Map<String, List<String>> LAYOUTS = Map.of(
+        "ENTRY_CREATED", ENTRY_FIELDS,
+        "ENTRY_MOVED", List.of("id", "previousEntryId", "nextEntryId"),
+        "ENTRY_DELETED", List.of("id"),
+        "ENTRIES_IMPORTED", List.of("count")
+    );
+
+    private static final Map<String, Integer> FIELD_INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < ENTRY_FIELDS.size(); i++) {
+            FIELD_INDEX.put(ENTRY_FIELDS.get(i), i);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+
+    public BoardFrameCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Dictionaries the client needs to decode compact frames
+     */
+    public Map<String, Object> schema() {
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("contentType", COMPACT_CONTENT_TYPE.toString());
+        schema.put("actions", ACTIONS);
+        schema.put("entryFields", ENTRY_FIELDS);
+        schema.put("layouts", LAYOUTS);
+        return schema;
+    }
+
+    /**
+     * The frame as the default JSON encoding sends it
+     */
+    public byte[] encodeJson(Map<String, Object> frame) {
+        return write(frame);
+    }
+
+    public byte[] encodeCompact(Map<String, Object> frame) {
+        String action = (String) frame.get("action");
+        int actionIndex = ACTIONS.indexOf(action);
+        return write(Arrays.asList(
+            actionIndex >= 0 ? actionIndex : action,
+            frame.get("node"),
+            frame.get("seq"),
+            compactData(action, frame.get("data"))
+        ));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object compactData(String action, Object data) {
+        if (!(data instanceof Map<?, ?> map)) {
+            return data;
+        }
+        if (BoardUpdateBroadcaster.ENTRIES_PATCHED.equals(action)) {
+            List<Object> entries = new ArrayList<>();
+            for (Map<String, Object> entry : (List<Map<String, Object>>) map.get("entries")) {
+                entries.add(compactPatch(entry));
+            }
+            return entries;
+        }
+        List<String> layout = LAYOUTS.get(action);
+        if (layout == null) {
+            return data;
+        }
+        List<Object> values = new ArrayList<>(layout.size());
+        for (String key : layout) {
+            values.add(map.get(key));
+        }
+        return values;
+    }
+
+    private static List<Object> compactPatch(Map<String, Object> entry) {
+        List<Object> values = new ArrayList<>(entry.size() * 2);
+        values.add(entry.get("id"));
+        entry.forEach((field, value) -> {
+            if (!"id".equals(field)) {
+                Integer index = FIELD_INDEX.get(field);
+                values.add(index != null ? index : field);
+                values.add(value);
+            }
+        });
+        return values;
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode board frame", e);
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.dto.BoardImportResultDTO;
+import com.taskmanagement.entity.Board;
+import com.taskmanagement.entity.ShipmentEntry;
+import com.taskmanagement.entity.User;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Import of a challan sheet into a board, in the column layout written by {@link ExcelExportService}.
+ *
+ * XLSX files are read with the POI event (SAX) model and CSV files line by line, so only
+ * the current chunk of rows is held in memory. Columns are matched by their header text;
+ * the title and group rows of an exported sheet are skipped, as are the two calculated
+ * columns. Valid rows are appended to the end of the board in JDBC batches, one
+ * transaction per chunk; a chunk the database refuses is written again row by row, so
+ * only the offending rows are lost. Invalid rows are reported and skipped.
+ *
+ * Chunks are committed as they fill, so when the file cannot be read to the end the rows
+ * before the error stay imported and the result reports the error instead of failing.
+ */
+@Service
+public class BoardImportService {
+
+    // Entry field for each column of ExcelExportService.HEADERS (null: calculated, not imported)
+    private static final String[] FIELDS = {
+        "consignee", "lighterVesselName", "vesselDestination", "date",
+        "challanNo", "convertingVessel", "noOfTrucks", "dischargingLocation", "finalDestination",
+        "itemName", "billableQuantity", "lighterCost", "unloadCost", "truckCost",
+        null, null
+    };
+
+    // The header row must be among the first rows of the sheet
+    private static final int MAX_HEADER_ROW = 10;
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("d/M/yyyy"),
+            DateTimeFormatter.ofPattern("d-M-yyyy"));
+
+    private static final String INSERT_ENTRY_SQL =
+            "INSERT INTO shipment_entries (board_id, position, consignee, lighter_vessel_name, vessel_destination, " +
+            "date, challan_no, converting_vessel, no_of_trucks, discharging_location, final_destination, item_name, " +
+            "billable_quantity, lighter_cost, unload_cost, truck_cost, created_by, updated_by, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_ENTRY_TYPES = {
+            Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.DATE, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.DECIMAL, Types.DECIMAL, Types.DECIMAL, Types.DECIMAL, Types.BIGINT, Types.BIGINT,
+            Types.TIMESTAMP, Types.TIMESTAMP
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RowOrderingService rowOrderingService;
+
+    @Value("${board.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${board.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public BoardImportService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              RowOrderingService rowOrderingService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rowOrderingService = rowOrderingService;
+    }
+
+    /**
+     * Import the first sheet of an XLSX workbook
+     */
+    public BoardImportResultDTO importXlsx(InputStream in, Board board, User user) throws IOException {
+        ImportSession session = new ImportSession(board, user);
+
+        // OPCPackage needs random access to the zip; a temp file keeps it off the heap
+        Path file = Files.createTempFile("board-import-", ".xlsx");
+        try {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    throw new RuntimeException("Workbook has no sheets");
+                }
+
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(),
+                        new ReadOnlySharedStringsTable(pkg), new SheetRowHandler(session), new RawValueFormatter(), false));
+                try (InputStream sheet = sheets.next()) {
+                    parser.parse(new InputSource(sheet));
+                } catch (SAXException | IOException | RuntimeException e) {
+                    if (!session.salvage()) {
+                        throw e;
+                    }
+                    return session.result(e.getMessage());
+                }
+            } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+                throw new RuntimeException("Could not read workbook: " + e.getMessage(), e);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        return session.finish();
+    }
+
+    /**
+     * Import a CSV file with the export's column headings
+     */
+    public BoardImportResultDTO importCsv(InputStream in, Board board, User user) throws IOException {
+        ImportSession session = new ImportSession(board, user);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1); // BOM written by Excel's "CSV UTF-8"
+                }
+                session.acceptRow(lineNumber, ShipmentImportService.parseCsvLine(line));
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!session.salvage()) {
+                throw e;
+            }
+            return session.result(e.getMessage());
+        }
+
+        return session.finish();
+    }
+
+    // ================== XLSX HELPERS ==================
+
+    /**
+     * Collects the cells of each sheet row (missing cells stay null) and hands the row to the session
+     */
+    private static class SheetRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final ImportSession session;
+        private final List<String> cells = new ArrayList<>();
+
+        SheetRowHandler(ImportSession session) {
+            this.session = session;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            session.acceptRow(rowNum + 1, cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            while (cells.size() <= column) {
+                cells.add(null);
+            }
+            cells.set(column, formattedValue);
+        }
+    }
+
+    /**
+     * Numbers as plain text (no grouping or rounding from the cell format) and dates as ISO dates
+     */
+    private static class RawValueFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value).toLocalDate().toString();
+            }
+            return NumberToTextConverter.toText(value);
+        }
+    }
+
+    // ================== VALUE HELPERS ==================
+
+    private static String normalize(String field, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        value = value.trim();
+        return switch (field) {
+            case "date" -> parseDate(value).toString();
+            case "noOfTrucks", "billableQuantity", "lighterCost", "unloadCost", "truckCost" -> value.replace(",", "");
+            default -> value;
+        };
+    }
+
+    private static LocalDate parseDate(String value) {
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        throw new IllegalArgumentException("unrecognised date '" + value + "' (expected yyyy-MM-dd or dd/MM/yyyy)");
+    }
+
+    // Matches MySQL's default case-insensitive collation on challan_no
+    private static String challanKey(String challanNo) {
+        return challanNo.toLowerCase(Locale.ROOT);
+    }
+
+    // ================== IMPORT STATE ==================
+
+    private record PendingRow(int rowNumber, ShipmentEntry entry) {
+    }
+
+    /**
+     * Tracks one import: the column mapping, known challan numbers, the current chunk and results
+     */
+    private class ImportSession {
+        private final Board board;
+        private final User user;
+
+        // Every challan number already on any board (uk_challan_no is table-wide), plus this file's
+        private final Set<String> challans = new HashSet<>();
+
+        // Sheet column of each FIELDS entry, or -1; null until the header row is found
+        private int[] columns;
+
+        private final List<PendingRow> chunk = new ArrayList<>();
+        private int lastRowNumber = 0;
+
+        private int rowsImported = 0;
+        private int rowsRejected = 0;
+        private final List<BoardImportResultDTO.RowError> errors = new ArrayList<>();
+
+        ImportSession(Board board, User user) {
+            this.board = board;
+            this.user = user;
+            jdbcTemplate.query("SELECT challan_no FROM shipment_entries WHERE challan_no IS NOT NULL",
+                    rs -> {
+                        challans.add(challanKey(rs.getString(1)));
+                    });
+        }
+
+        void acceptRow(int rowNumber, List<String> cells) {
+            lastRowNumber = rowNumber;
+            if (cells.stream().allMatch(cell -> cell == null || cell.isBlank())) {
+                return;
+            }
+            if (columns == null) {
+                findHeader(rowNumber, cells);
+                return;
+            }
+
+            ShipmentEntry entry = new ShipmentEntry();
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (FIELDS[i] == null || columns[i] < 0 || columns[i] >= cells.size()) {
+                    continue;
+                }
+                try {
+                    ShipmentEntryService.updateField(entry, FIELDS[i], normalize(FIELDS[i], cells.get(columns[i])));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    reject(rowNumber, "Invalid " + ExcelExportService.HEADERS[i] + ": " + e.getMessage());
+                    return;
+                }
+            }
+
+            if (entry.getChallanNo() != null && !challans.add(challanKey(entry.getChallanNo()))) {
+                reject(rowNumber, "Challan No " + entry.getChallanNo() + " already exists");
+                return;
+            }
+
+            chunk.add(new PendingRow(rowNumber, entry));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void findHeader(int rowNumber, List<String> cells) {
+            int[] found = new int[FIELDS.length];
+            Arrays.fill(found, -1);
+            int matched = 0;
+            for (int column = 0; column < cells.size(); column++) {
+                String cell = cells.get(column);
+                for (int i = 0; cell != null && i < ExcelExportService.HEADERS.length; i++) {
+                    if (found[i] < 0 && ExcelExportService.HEADERS[i].equalsIgnoreCase(cell.trim())) {
+                        found[i] = column;
+                        matched++;
+                        break;
+                    }
+                }
+            }
+
+            // Title and group-header rows of an exported sheet match at most one heading
+            if (matched >= 2) {
+                if (found[4] < 0) {
+                    throw new RuntimeException("Header row " + rowNumber + " has no Challan No column");
+                }
+                columns = found;
+            } else if (rowNumber >= MAX_HEADER_ROW) {
+                throw new RuntimeException("No header row found in the first " + MAX_HEADER_ROW +
+                        " rows; expected the columns " + String.join(", ", ExcelExportService.HEADERS));
+            }
+        }
+
+        void reject(int rowNumber, String message) {
+            rowsRejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BoardImportResultDTO.RowError(rowNumber, message));
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeRows(chunk));
+                rowsImported += chunk.size();
+            } catch (DataAccessException e) {
+                // The whole batch was rolled back for one (or a few) rows; keep the others
+                for (PendingRow row : chunk) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> writeRows(List.of(row)));
+                        rowsImported++;
+                    } catch (DataAccessException rowError) {
+                        if (row.entry().getChallanNo() != null) {
+                            challans.remove(challanKey(row.entry().getChallanNo()));
+                        }
+                        reject(row.rowNumber(), "Not imported: " + rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            chunk.clear();
+        }
+
+        private void writeRows(List<PendingRow> rows) {
+            // Locks the board, so concurrent appends take positions after these rows
+            long position = rowOrderingService.appendPosition(RowOrderingService.Scope.BOARD_ENTRIES, board.getId());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Long userId = user.getId();
+
+            List<Object[]> args = new ArrayList<>(rows.size());
+            for (PendingRow row : rows) {
+                ShipmentEntry entry = row.entry();
+                args.add(new Object[]{
+                        board.getId(), position, entry.getConsignee(), entry.getLighterVesselName(),
+                        entry.getVesselDestination(), entry.getDate(), entry.getChallanNo(), entry.getConvertingVessel(),
+                        entry.getNoOfTrucks(), entry.getDischargingLocation(), entry.getFinalDestination(),
+                        entry.getItemName(), entry.getBillableQuantity(), entry.getLighterCost(), entry.getUnloadCost(),
+                        entry.getTruckCost(), userId, userId, now, now
+                });
+                position += RowOrderingService.GAP;
+            }
+            jdbcTemplate.batchUpdate(INSERT_ENTRY_SQL, args, INSERT_ENTRY_TYPES);
+        }
+
+        BoardImportResultDTO finish() {
+            if (columns == null) {
+                throw new RuntimeException("File has no header row; expected the columns " +
+                        String.join(", ", ExcelExportService.HEADERS));
+            }
+            flush();
+            return result(null);
+        }
+
+        /**
+         * After the file could not be read to the end: writes the rows read so far and tells
+         * whether anything is in the board, i.e. whether there is a partial result to return
+         */
+        boolean salvage() {
+            if (columns != null) {
+                flush();
+            }
+            return rowsImported > 0;
+        }
+
+        BoardImportResultDTO result(String failure) {
+            return BoardImportResultDTO.builder()
+                    .boardId(board.getId())
+                    .rowsImported(rowsImported)
+                    .rowsRejected(rowsRejected)
+                    .errorsTruncated(rowsRejected > errors.size())
+                    .errors(errors)
+                    .error(failure != null ? "Import stopped after row " + lastRowNumber + ": " + failure : null)
+                    .build();
+        }
+    }
+}
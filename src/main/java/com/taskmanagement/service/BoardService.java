@@ -3,7 +3,9 @@ package com.taskmanagement.service;
 import com.taskmanagement.entity.Board;
 import com.taskmanagement.entity.User;
 import com.taskmanagement.repository.BoardRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -14,9 +16,14 @@ import java.util.Optional;
 public class BoardService {
 
     private final BoardRepository boardRepository;
+    private final BoardAccessCache boardAccessCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BoardService(BoardRepository boardRepository) {
+    public BoardService(BoardRepository boardRepository, BoardAccessCache boardAccessCache,
+                        ApplicationEventPublisher eventPublisher) {
         this.boardRepository = boardRepository;
+        this.boardAccessCache = boardAccessCache;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Board> findAll() {
@@ -28,11 +35,19 @@ public class BoardService {
     }
 
     public Board save(Board board) {
-        return boardRepository.save(board);
+        boolean created = board.getId() == null;
+        Board saved = boardRepository.save(board);
+        if (created) {
+            // A denial cached for this id before the board existed must not lock out its creator
+            eventPublisher.publishEvent(new BoardAccessChangedEvent(saved.getId(), null));
+        }
+        return saved;
     }
 
     public void deleteById(Long id) {
         boardRepository.deleteById(id);
+        eventPublisher.publishEvent(new BoardAccessChangedEvent(id, null));
+        eventPublisher.publishEvent(new BoardDeletedEvent(id));
     }
 
     public List<Board> findByCreatedBy(Long userId) {
@@ -44,22 +59,29 @@ public class BoardService {
     }
 
     public boolean canUserAccessBoard(Board board, User user) {
-        // Manager (creator) has full access
-        if (board.getCreatedBy().getId().equals(user.getId())) {
-            return true;
-        }
-        // Officer: only if assigned as member
-        return board.getMembers().stream()
-                .anyMatch(member -> member.getId().equals(user.getId()));
+        return canUserAccessBoard(board.getId(), user);
+    }
+
+    /**
+     * Manager (creator) or assigned officer (member). Answered from the access cache, so
+     * per-request checks load neither the board nor its members (and a hit needs no
+     * connection); false for unknown boards.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public boolean canUserAccessBoard(Long boardId, User user) {
+        return boardAccessCache.isAllowed(boardId, user.getId(),
+                key -> boardRepository.canAccess(key.boardId(), key.userId()));
     }
 
     public void assignOfficer(Board board, User officer) {
         board.getMembers().add(officer);
         boardRepository.save(board);
+        eventPublisher.publishEvent(new BoardAccessChangedEvent(board.getId(), officer.getId()));
     }
 
     public void removeOfficer(Board board, User officer) {
         board.getMembers().remove(officer);
         boardRepository.save(board);
+        eventPublisher.publishEvent(new BoardAccessChangedEvent(board.getId(), officer.getId()));
     }
 }
@@ -0,0 +1,279 @@
+package com.taskmanagement.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Sends board updates to /topic/board/{id}, each stamped with a per-board sequence number.
+ * Sequence numbers are kept per node; frames carry the node's id so clients of a
+ * multi-node deployment (broker relay) can track each node's sequence separately.
+ * The most recent frames of each board are kept in a bounded ring buffer, so a client
+ * that reconnects can replay what it missed instead of reloading the board.
+ *
+ * Entry field changes are coalesced: changes to the same board arriving within the
+ * window are merged per entry (last value wins) and sent as one ENTRIES_PATCHED frame
+ * holding only the changed fields. Other actions are sent immediately, after flushing
+ * any pending changes, so clients always see messages in sequence order.
+ *
+ * With board.broadcast.compact-frames enabled, every frame is also published in the
+ * compact encoding ({@link BoardFrameCodec}) to /topic/board/{id}/compact; clients choose
+ * the encoding by the destination they subscribe to.
+ *
+ * A board's channel (sequence, pending changes, replay buffer) is dropped when the board is
+ * deleted, or when it has had no frame for board.broadcast.channel-idle-ttl-ms. A channel
+ * created afterwards continues above every sequence number handed out before, so clients
+ * holding an older sequence are told to reload rather than given a replay with a gap.
+ */
+@Service
+public class BoardUpdateBroadcaster {
+
+    public static final String ENTRIES_PATCHED = "ENTRIES_PATCHED";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketSessionMonitor webSocketSessionMonitor;
+    private final BoardFrameCodec boardFrameCodec;
+    private final long coalesceWindowMs;
+    private final int replayBufferSize;
+    private final boolean compactFrames;
+    private final long channelIdleTtlMs;
+    private final String nodeId;
+    private final Map<Long, BoardChannel> channels = new ConcurrentHashMap<>();
+    // Highest sequence number of any dropped channel; new channels start from here
+    private final AtomicLong droppedSeq = new AtomicLong();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "board-update-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BoardUpdateBroadcaster(SimpMessagingTemplate messagingTemplate,
+                                  WebSocketSessionMonitor webSocketSessionMonitor,
+                                  BoardFrameCodec boardFrameCodec,
+                                  @Value("${board.broadcast.coalesce-window-ms:50}") long coalesceWindowMs,
+                                  @Value("${board.broadcast.replay-buffer-size:256}") int replayBufferSize,
+                                  @Value("${board.broadcast.compact-frames:false}") boolean compactFrames,
+                                  @Value("${board.broadcast.channel-idle-ttl-ms:600000}") long channelIdleTtlMs,
+                                  @Value("${app.node-id:}") String nodeId) {
+        this.messagingTemplate = messagingTemplate;
+        this.webSocketSessionMonitor = webSocketSessionMonitor;
+        this.boardFrameCodec = boardFrameCodec;
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.replayBufferSize = replayBufferSize;
+        this.compactFrames = compactFrames;
+        this.channelIdleTtlMs = channelIdleTtlMs;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString().substring(0, 8) : nodeId;
+        if (channelIdleTtlMs > 0) {
+            long sweepMs = Math.max(1000, channelIdleTtlMs / 2);
+            flusher.scheduleWithFixedDelay(this::evictIdleChannels, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Queue changed fields of one entry; they are broadcast with the board's next coalesced frame
+     */
+    public void sendEntryChanges(Long boardId, Long entryId, Map<String, Object> changedFields) {
+        withChannel(boardId, channel -> {
+            Map<String, Object> pending = channel.pending.get(entryId);
+            if (pending != null) {
+                webSocketSessionMonitor.recordMerged(boardId);
+            } else {
+                pending = new LinkedHashMap<>();
+                pending.put("id", entryId);
+                channel.pending.put(entryId, pending);
+            }
+            pending.putAll(changedFields);
+
+            if (coalesceWindowMs <= 0) {
+                flushLocked(boardId, channel);
+            } else if (!channel.flushScheduled) {
+                channel.flushScheduled = true;
+                flusher.schedule(() -> flush(boardId), coalesceWindowMs, TimeUnit.MILLISECONDS);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Send a message right away (after any pending entry changes for the same board)
+     */
+    public void sendNow(Long boardId, String action, Map<String, Object> payload) {
+        withChannel(boardId, channel -> {
+            flushLocked(boardId, channel);
+            send(boardId, channel, action, payload);
+            return null;
+        });
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isCompactFrames() {
+        return compactFrames;
+    }
+
+    /**
+     * Sequence number of the board's latest frame on this node (where the next frame continues from, if none yet)
+     */
+    public long currentSeq(Long boardId) {
+        return withChannel(boardId, channel -> channel.seq);
+    }
+
+    /**
+     * Frames of this node after afterSeq, oldest first. Not complete (the client must reload the
+     * board) when the frames came from another node or a previous run, or have left the buffer.
+     */
+    public Replay replay(Long boardId, String node, long afterSeq) {
+        return withChannel(boardId, channel -> {
+            // Pending entry changes get their sequence number now, so they are part of the replay
+            flushLocked(boardId, channel);
+
+            long oldestSeq = channel.seq - channel.recent.size() + 1;
+            boolean complete = nodeId.equals(node) && afterSeq <= channel.seq && afterSeq >= oldestSeq - 1
+                    && afterSeq >= channel.firstSeq;
+            List<Map<String, Object>> events = new ArrayList<>();
+            if (complete) {
+                channel.recent.stream().skip(afterSeq - oldestSeq + 1).forEach(events::add);
+            }
+            return new Replay(nodeId, channel.seq, complete, events);
+        });
+    }
+
+    /**
+     * Drop the channel of a deleted board once the deletion has committed; pending changes are discarded
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoardDeleted(BoardDeletedEvent event) {
+        BoardChannel channel = channels.remove(event.getBoardId());
+        if (channel != null) {
+            synchronized (channel) {
+                drop(channel);
+                channel.pending.clear();
+            }
+        }
+    }
+
+    private void flush(Long boardId) {
+        BoardChannel channel = channels.get(boardId);
+        if (channel == null) {
+            return; // dropped with its board
+        }
+        synchronized (channel) {
+            channel.flushScheduled = false;
+            if (!channel.dropped) {
+                flushLocked(boardId, channel);
+            }
+        }
+    }
+
+    private void evictIdleChannels() {
+        long idleSince = System.currentTimeMillis() - channelIdleTtlMs;
+        channels.forEach((boardId, channel) -> {
+            synchronized (channel) {
+                if (channel.pending.isEmpty() && !channel.flushScheduled && channel.lastUsedAt < idleSince) {
+                    drop(channel);
+                    channels.remove(boardId, channel);
+                }
+            }
+        });
+    }
+
+    // Caller holds the channel's monitor
+    private void drop(BoardChannel channel) {
+        channel.dropped = true;
+        droppedSeq.accumulateAndGet(channel.seq, Math::max);
+    }
+
+    private void flushLocked(Long boardId, BoardChannel channel) {
+        if (channel.pending.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> entries = new ArrayList<>(channel.pending.values());
+        channel.pending.clear();
+        send(boardId, channel, ENTRIES_PATCHED, Map.of("entries", entries));
+    }
+
+    private void send(Long boardId, BoardChannel channel, String action, Map<String, Object> payload) {
+        Map<String, Object> message = Map.of(
+            "action", action,
+            "node", nodeId,
+            "seq", ++channel.seq,
+            "timestamp", System.currentTimeMillis(),
+            "data", payload
+        );
+        if (replayBufferSize > 0) {
+            if (channel.recent.size() >= replayBufferSize) {
+                channel.recent.removeFirst();
+            }
+            channel.recent.addLast(message);
+        }
+        messagingTemplate.convertAndSend("/topic/board/" + boardId, message);
+        if (compactFrames) {
+            messagingTemplate.send("/topic/board/" + boardId + "/compact",
+                    MessageBuilder.withPayload(boardFrameCodec.encodeCompact(message))
+                            .setHeader(MessageHeaders.CONTENT_TYPE, BoardFrameCodec.COMPACT_CONTENT_TYPE)
+                            .build());
+        }
+    }
+
+    /**
+     * Run an action on the board's channel while holding its monitor. A channel dropped between
+     * the lookup and taking the monitor is replaced by a new one, so sequences never go backwards.
+     */
+    private <T> T withChannel(Long boardId, Function<BoardChannel, T> action) {
+        while (true) {
+            BoardChannel channel = channels.computeIfAbsent(boardId, id -> new BoardChannel(droppedSeq.get()));
+            synchronized (channel) {
+                if (!channel.dropped) {
+                    channel.lastUsedAt = System.currentTimeMillis();
+                    return action.apply(channel);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+    }
+
+    // All fields guarded by the channel's monitor
+    private static class BoardChannel {
+        private final long firstSeq;
+        private long seq;
+        private final Map<Long, Map<String, Object>> pending = new LinkedHashMap<>();
+        private boolean flushScheduled = false;
+        private final Deque<Map<String, Object>> recent = new ArrayDeque<>();
+        private long lastUsedAt;
+        private boolean dropped = false;
+
+        private BoardChannel(long firstSeq) {
+            this.firstSeq = firstSeq;
+            this.seq = firstSeq;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Replay {
+        private final String node;
+        private final long seq;
+        private final boolean complete;
+        private final List<Map<String, Object>> events;
+    }
+}
@@ -1,109 +1,75 @@
 package com.taskmanagement.service;
 
+import com.taskmanagement.dto.ShipmentDTO;
 import com.taskmanagement.entity.Board;
 import com.taskmanagement.entity.ShipmentEntry;
+import com.taskmanagement.repository.ShipmentEntryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 @Service
 public class ExcelExportService {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-    public byte[] exportBoardToExcel(Board board, List<ShipmentEntry> entries) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet(board.getTitle());
+    // Also the column headings recognised by BoardImportService
+    static final String[] HEADERS = {
+        "Consignee", "Lighter Vessel Name", "Vessel Destination", "Date",
+        "Challan No", "Converting Vessel", "No of Trucks", "Discharging Location", "Final Destination",
+        "Item Name", "Billable Quantity", "Lighter Cost", "Unload Cost", "Truck Cost",
+        "Total Unit Costing", "Final Amount"
+    };
 
-            // Create header styles
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            CellStyle groupHeaderStyle = createGroupHeaderStyle(workbook);
-            CellStyle dataStyle = createDataStyle(workbook);
-            CellStyle calculatedStyle = createCalculatedStyle(workbook);
+    private static final String[] SHIPMENT_HEADERS = {
+        "Lighter", "Lighter Destination", "Loaded Quantity", "Lighter Cost",
+        "Challan", "Conveyance", "No of Trucks", "Unloaded Quantity", "Unloading Cost",
+        "Item", "Delivery Quantity", "Survey Quantity", "Product Cost"
+    };
 
-            int rowNum = 0;
+    private static final int PROGRESS_INTERVAL_ROWS = 1000;
 
-            // Title row
-            Row titleRow = sheet.createRow(rowNum++);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue(board.getTitle());
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setBold(true);
-            titleFont.setFontHeightInPoints((short) 16);
-            titleStyle.setFont(titleFont);
-            titleCell.setCellStyle(titleStyle);
+    // Rows kept in memory by the streaming workbook; older rows are flushed to a temp file
+    private static final int STREAM_WINDOW_ROWS = 100;
 
-            rowNum++; // Empty row
+    // Column widths of the streaming export are sized from the first rows only
+    private static final int WIDTH_SAMPLE_ROWS = 500;
 
-            // Group headers
-            Row groupRow = sheet.createRow(rowNum++);
-            int colNum = 0;
-            
-            Cell groupCell1 = groupRow.createCell(colNum);
-            groupCell1.setCellValue("Loading Info");
-            groupCell1.setCellStyle(groupHeaderStyle);
-            colNum += 4;
-            
-            Cell groupCell2 = groupRow.createCell(colNum);
-            groupCell2.setCellValue("Unloading & Transit Info");
-            groupCell2.setCellStyle(groupHeaderStyle);
-            colNum += 5;
-            
-            Cell groupCell3 = groupRow.createCell(colNum);
-            groupCell3.setCellValue("Product & Financials");
-            groupCell3.setCellStyle(groupHeaderStyle);
-
-            // Column headers
-            Row headerRow = sheet.createRow(rowNum++);
-            String[] headers = {
-                "Consignee", "Lighter Vessel Name", "Vessel Destination", "Date",
-                "Challan No", "Converting Vessel", "No of Trucks", "Discharging Location", "Final Destination",
-                "Item Name", "Billable Quantity", "Lighter Cost", "Unload Cost", "Truck Cost", 
-                "Total Unit Costing", "Final Amount"
-            };
-            
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
+    private final ShipmentEntryRepository shipmentEntryRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
-            // Data rows
+    public ExcelExportService(ShipmentEntryRepository shipmentEntryRepository) {
+        this.shipmentEntryRepository = shipmentEntryRepository;
+    }
+
+    public byte[] exportBoardToExcel(Board board, List<ShipmentEntry> entries) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(board.getTitle()));
+            Styles styles = new Styles(workbook);
+
+            int rowNum = writeHeader(workbook, sheet, board, styles);
             for (ShipmentEntry entry : entries) {
-                Row row = sheet.createRow(rowNum++);
-                colNum = 0;
-
-                // Loading Info
-                createCell(row, colNum++, entry.getConsignee(), dataStyle);
-                createCell(row, colNum++, entry.getLighterVesselName(), dataStyle);
-                createCell(row, colNum++, entry.getVesselDestination(), dataStyle);
-                createCell(row, colNum++, entry.getDate() != null ? entry.getDate().format(DATE_FORMATTER) : "", dataStyle);
-
-                // Unloading & Transit Info
-                createCell(row, colNum++, entry.getChallanNo(), dataStyle);
-                createCell(row, colNum++, entry.getConvertingVessel(), dataStyle);
-                createCell(row, colNum++, entry.getNoOfTrucks() != null ? entry.getNoOfTrucks().toString() : "", dataStyle);
-                createCell(row, colNum++, entry.getDischargingLocation(), dataStyle);
-                createCell(row, colNum++, entry.getFinalDestination(), dataStyle);
-
-                // Product & Financials
-                createCell(row, colNum++, entry.getItemName(), dataStyle);
-                createNumericCell(row, colNum++, entry.getBillableQuantity(), dataStyle);
-                createNumericCell(row, colNum++, entry.getLighterCost(), dataStyle);
-                createNumericCell(row, colNum++, entry.getUnloadCost(), dataStyle);
-                createNumericCell(row, colNum++, entry.getTruckCost(), dataStyle);
-                createNumericCell(row, colNum++, entry.getTotalUnitCosting(), calculatedStyle);
-                createNumericCell(row, colNum++, entry.getFinalAmount(), calculatedStyle);
+                writeEntryRow(sheet.createRow(rowNum++), entry, styles);
             }
 
             // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < HEADERS.length; i++) {
                 sheet.autoSizeColumn(i);
             }
 
@@ -114,6 +80,232 @@ public class ExcelExportService {
         }
     }
 
+    /**
+     * Stream a board to the given output with bounded memory: entries are read through a
+     * database cursor and detached after use, and only a window of rows is kept in memory.
+     */
+    @Transactional(readOnly = true)
+    public void streamBoardToExcel(Board board, OutputStream out) throws IOException {
+        streamBoardToExcel(board, out, rows -> { });
+    }
+
+    /**
+     * Same as {@link #streamBoardToExcel(Board, OutputStream)}, reporting the number of
+     * rows written so far every {@value #PROGRESS_INTERVAL_ROWS} rows
+     */
+    @Transactional(readOnly = true)
+    public void streamBoardToExcel(Board board, OutputStream out, LongConsumer progress) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(STREAM_WINDOW_ROWS);
+        workbook.setCompressTempFiles(true);
+        try (workbook; Stream<ShipmentEntry> entries = shipmentEntryRepository.streamByBoardId(board.getId())) {
+            Sheet sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(board.getTitle()));
+            Styles styles = new Styles(workbook);
+
+            int rowNum = writeHeader(workbook, sheet, board, styles);
+            int[] widths = new int[HEADERS.length];
+            for (int i = 0; i < HEADERS.length; i++) {
+                widths[i] = HEADERS[i].length();
+            }
+
+            Iterator<ShipmentEntry> iterator = entries.iterator();
+            int sampled = 0;
+            while (iterator.hasNext()) {
+                ShipmentEntry entry = iterator.next();
+                Row row = sheet.createRow(rowNum++);
+                writeEntryRow(row, entry, styles);
+                if (sampled++ < WIDTH_SAMPLE_ROWS) {
+                    sampleWidths(row, widths);
+                }
+                entityManager.detach(entry);
+                if (sampled % PROGRESS_INTERVAL_ROWS == 0) {
+                    progress.accept(sampled);
+                }
+            }
+            progress.accept(sampled);
+
+            for (int i = 0; i < HEADERS.length; i++) {
+                sheet.setColumnWidth(i, Math.min(widths[i] + 2, 100) * 256);
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * One sheet per shipment: summary lines, then one row per product
+     * (or per truck / lighter when it has no children yet)
+     */
+    public void writeShipmentToExcel(ShipmentDTO shipment, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(STREAM_WINDOW_ROWS);
+        try (workbook) {
+            Sheet sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(shipment.getMotherVesselName()));
+            Styles styles = new Styles(workbook);
+            int rowNum = 0;
+
+            Row titleRow = sheet.createRow(rowNum++);
+            createCell(titleRow, 0, shipment.getMotherVesselName() + " - " + shipment.getConsignee(), styles.header);
+
+            String[][] summary = {
+                {"Arrival Date", shipment.getArrivalDate() != null ? shipment.getArrivalDate().format(DATE_FORMATTER) : ""},
+                {"Item Type", shipment.getItemType()},
+                {"Status", shipment.getStatus() != null ? shipment.getStatus().name() : ""},
+                {"Flow", shipment.getFlowSummary()}
+            };
+            for (String[] line : summary) {
+                Row row = sheet.createRow(rowNum++);
+                createCell(row, 0, line[0], styles.groupHeader);
+                createCell(row, 1, line[1], styles.data);
+            }
+            Row incomingRow = sheet.createRow(rowNum++);
+            createCell(incomingRow, 0, "Incoming Quantity", styles.groupHeader);
+            createNumericCell(incomingRow, 1, shipment.getTotalIncomingQuantity(), styles.data);
+            Row costRow = sheet.createRow(rowNum++);
+            createCell(costRow, 0, "Total Cost", styles.groupHeader);
+            createNumericCell(costRow, 1, shipment.getTotalCost(), styles.calculated);
+
+            rowNum++; // Empty row
+
+            Row headerRow = sheet.createRow(rowNum++);
+            for (int i = 0; i < SHIPMENT_HEADERS.length; i++) {
+                createCell(headerRow, i, SHIPMENT_HEADERS[i], styles.header);
+                sheet.setColumnWidth(i, (SHIPMENT_HEADERS[i].length() + 6) * 256);
+            }
+
+            for (ShipmentDTO.LighterLoadingDTO lighter : shipment.getLighterLoadings()) {
+                if (lighter.getTruckUnloadings().isEmpty()) {
+                    writeShipmentRow(sheet.createRow(rowNum++), lighter, null, null, styles);
+                }
+                for (ShipmentDTO.TruckUnloadingDTO truck : lighter.getTruckUnloadings()) {
+                    if (truck.getProductDetails().isEmpty()) {
+                        writeShipmentRow(sheet.createRow(rowNum++), lighter, truck, null, styles);
+                    }
+                    for (ShipmentDTO.ProductDetailDTO product : truck.getProductDetails()) {
+                        writeShipmentRow(sheet.createRow(rowNum++), lighter, truck, product, styles);
+                    }
+                }
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    private void writeShipmentRow(Row row, ShipmentDTO.LighterLoadingDTO lighter, ShipmentDTO.TruckUnloadingDTO truck,
+                                  ShipmentDTO.ProductDetailDTO product, Styles styles) {
+        int colNum = 0;
+        createCell(row, colNum++, lighter.getLighterName(), styles.data);
+        createCell(row, colNum++, lighter.getDestination(), styles.data);
+        createNumericCell(row, colNum++, lighter.getLoadedQuantity(), styles.data);
+        createNumericCell(row, colNum++, lighter.getLighterCost(), styles.data);
+        createCell(row, colNum++, truck != null ? truck.getChallan() : "", styles.data);
+        createCell(row, colNum++, truck != null ? truck.getConveyanceName() : "", styles.data);
+        createNumericCell(row, colNum++, truck != null ? truck.getNumberOfTrucks() : null, styles.data);
+        createNumericCell(row, colNum++, truck != null ? truck.getUnloadedQuantity() : null, styles.data);
+        createNumericCell(row, colNum++, truck != null ? truck.getUnloadingCost() : null, styles.data);
+        createCell(row, colNum++, product != null ? product.getItem() : "", styles.data);
+        createNumericCell(row, colNum++, product != null ? product.getDeliveryQuantity() : null, styles.data);
+        createNumericCell(row, colNum++, product != null ? product.getSurveyQuantity() : null, styles.data);
+        createNumericCell(row, colNum++, product != null ? product.getTotalCost() : null, styles.calculated);
+    }
+
+    private int writeHeader(Workbook workbook, Sheet sheet, Board board, Styles styles) {
+        int rowNum = 0;
+
+        // Title row
+        Row titleRow = sheet.createRow(rowNum++);
+        Cell titleCell = titleRow.createCell(0);
+        titleCell.setCellValue(board.getTitle());
+        CellStyle titleStyle = workbook.createCellStyle();
+        Font titleFont = workbook.createFont();
+        titleFont.setBold(true);
+        titleFont.setFontHeightInPoints((short) 16);
+        titleStyle.setFont(titleFont);
+        titleCell.setCellStyle(titleStyle);
+
+        rowNum++; // Empty row
+
+        // Group headers
+        Row groupRow = sheet.createRow(rowNum++);
+        int colNum = 0;
+
+        Cell groupCell1 = groupRow.createCell(colNum);
+        groupCell1.setCellValue("Loading Info");
+        groupCell1.setCellStyle(styles.groupHeader);
+        colNum += 4;
+
+        Cell groupCell2 = groupRow.createCell(colNum);
+        groupCell2.setCellValue("Unloading & Transit Info");
+        groupCell2.setCellStyle(styles.groupHeader);
+        colNum += 5;
+
+        Cell groupCell3 = groupRow.createCell(colNum);
+        groupCell3.setCellValue("Product & Financials");
+        groupCell3.setCellStyle(styles.groupHeader);
+
+        // Column headers
+        Row headerRow = sheet.createRow(rowNum++);
+        for (int i = 0; i < HEADERS.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(HEADERS[i]);
+            cell.setCellStyle(styles.header);
+        }
+        return rowNum;
+    }
+
+    private void writeEntryRow(Row row, ShipmentEntry entry, Styles styles) {
+        int colNum = 0;
+
+        // Loading Info
+        createCell(row, colNum++, entry.getConsignee(), styles.data);
+        createCell(row, colNum++, entry.getLighterVesselName(), styles.data);
+        createCell(row, colNum++, entry.getVesselDestination(), styles.data);
+        createCell(row, colNum++, entry.getDate() != null ? entry.getDate().format(DATE_FORMATTER) : "", styles.data);
+
+        // Unloading & Transit Info
+        createCell(row, colNum++, entry.getChallanNo(), styles.data);
+        createCell(row, colNum++, entry.getConvertingVessel(), styles.data);
+        createCell(row, colNum++, entry.getNoOfTrucks() != null ? entry.getNoOfTrucks().toString() : "", styles.data);
+        createCell(row, colNum++, entry.getDischargingLocation(), styles.data);
+        createCell(row, colNum++, entry.getFinalDestination(), styles.data);
+
+        // Product & Financials
+        createCell(row, colNum++, entry.getItemName(), styles.data);
+        createNumericCell(row, colNum++, entry.getBillableQuantity(), styles.data);
+        createNumericCell(row, colNum++, entry.getLighterCost(), styles.data);
+        createNumericCell(row, colNum++, entry.getUnloadCost(), styles.data);
+        createNumericCell(row, colNum++, entry.getTruckCost(), styles.data);
+        createNumericCell(row, colNum++, entry.getTotalUnitCosting(), styles.calculated);
+        createNumericCell(row, colNum++, entry.getFinalAmount(), styles.calculated);
+    }
+
+    private void sampleWidths(Row row, int[] widths) {
+        for (int i = 0; i < widths.length; i++) {
+            Cell cell = row.getCell(i);
+            if (cell == null) {
+                continue;
+            }
+            int length = cell.getCellType() == CellType.NUMERIC
+                    ? String.valueOf(cell.getNumericCellValue()).length()
+                    : cell.getStringCellValue().length();
+            widths[i] = Math.max(widths[i], length);
+        }
+    }
+
+    private class Styles {
+        private final CellStyle header;
+        private final CellStyle groupHeader;
+        private final CellStyle data;
+        private final CellStyle calculated;
+
+        private Styles(Workbook workbook) {
+            this.header = createHeaderStyle(workbook);
+            this.groupHeader = createGroupHeaderStyle(workbook);
+            this.data = createDataStyle(workbook);
+            this.calculated = createCalculatedStyle(workbook);
+        }
+    }
+
     private CellStyle createHeaderStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         Font font = workbook.createFont();
@@ -0,0 +1,36 @@
+package com.taskmanagement.service;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An export running (or finished) in the background; see {@link ExportJobService}
+ */
+@Data
+public class ExportJob {
+
+    public enum Type { BOARD, SHIPMENT }
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final Type type;
+    private final Long targetId;
+    private final String cacheKey; // target plus its last-modified stamp
+    private final String requestedBy;
+    private final String filename;
+    // Usernames notified over WebSocket: the requester and everyone whose request reused the job
+    private final Set<String> subscribers = ConcurrentHashMap.newKeySet();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long rowsWritten = 0;
+    private volatile long totalRows = 0;
+    private volatile String error;
+    private volatile Path file;
+    private volatile Instant completedAt;
+    private final Instant createdAt = Instant.now();
+}
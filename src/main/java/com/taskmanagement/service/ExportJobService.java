@@ -0,0 +1,238 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.dto.ShipmentDTO;
+import com.taskmanagement.entity.Board;
+import com.taskmanagement.entity.ShipmentCycle;
+import com.taskmanagement.repository.ShipmentCycleRepository;
+import com.taskmanagement.repository.ShipmentEntryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs board and shipment Excel exports on a bounded executor and keeps the finished
+ * files in a local temp directory until they expire.
+ *
+ * Each job is keyed by its target and the target's last-modified stamp, so asking
+ * again for an unchanged board or shipment returns the existing (possibly still
+ * running) job instead of exporting again. Progress and completion are pushed on
+ * /user/queue/exports to every user who requested the job.
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+
+    private static final String USER_DESTINATION = "/queue/exports";
+
+    private final ExcelExportService excelExportService;
+    private final ShipmentService shipmentService;
+    private final ShipmentEntryRepository shipmentEntryRepository;
+    private final ShipmentCycleRepository shipmentCycleRepository;
+    private final WebSocketService webSocketService;
+
+    private final Path storeDir;
+    private final Duration ttl;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, String> jobIdsByCacheKey = new ConcurrentHashMap<>();
+
+    public ExportJobService(ExcelExportService excelExportService,
+                            ShipmentService shipmentService,
+                            ShipmentEntryRepository shipmentEntryRepository,
+                            ShipmentCycleRepository shipmentCycleRepository,
+                            WebSocketService webSocketService,
+                            @Value("${export.jobs.dir:${java.io.tmpdir}/task-management-exports}") String storeDir,
+                            @Value("${export.jobs.ttl-minutes:60}") long ttlMinutes,
+                            @Value("${export.jobs.threads:2}") int threads,
+                            @Value("${export.jobs.queue-capacity:20}") int queueCapacity) throws IOException {
+        this.excelExportService = excelExportService;
+        this.shipmentService = shipmentService;
+        this.shipmentEntryRepository = shipmentEntryRepository;
+        this.shipmentCycleRepository = shipmentCycleRepository;
+        this.webSocketService = webSocketService;
+        this.storeDir = Files.createDirectories(Paths.get(storeDir));
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "export-job");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        // Files from a previous run are not tracked any more
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(this.storeDir)) {
+            for (Path file : stale) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    public ExportJob submitBoardExport(Board board, String username) {
+        List<Object[]> stamp = shipmentEntryRepository.getChangeStampByBoardId(board.getId());
+        Object[] row = stamp.isEmpty() ? new Object[]{0L, null} : stamp.get(0);
+        String cacheKey = "board:" + board.getId() + ":" + board.getUpdatedAt() + ":" + row[0] + ":" + row[1];
+        String filename = board.getTitle().replaceAll("[^a-zA-Z0-9-_]", "_") + ".xlsx";
+
+        return submit(ExportJob.Type.BOARD, board.getId(), cacheKey, filename, username, job -> {
+            job.setTotalRows(((Number) row[0]).longValue());
+            writeFile(job, out -> excelExportService.streamBoardToExcel(board, out, rows -> progress(job, rows)));
+        });
+    }
+
+    public ExportJob submitShipmentExport(Long shipmentId, String username) {
+        ShipmentCycle shipment = shipmentCycleRepository.findById(shipmentId)
+                .orElseThrow(() -> new RuntimeException("Shipment not found"));
+        String cacheKey = "shipment:" + shipmentId + ":v" + shipment.getVersion() + ":" + shipment.getUpdatedAt();
+        String filename = (shipment.getMotherVesselName() + "_" + shipment.getConsignee())
+                .replaceAll("[^a-zA-Z0-9-_]", "_") + ".xlsx";
+
+        return submit(ExportJob.Type.SHIPMENT, shipmentId, cacheKey, filename, username, job -> {
+            ShipmentDTO dto = shipmentService.getShipment(shipmentId);
+            writeFile(job, out -> excelExportService.writeShipmentToExcel(dto, out));
+        });
+    }
+
+    public Optional<ExportJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Job state as sent to clients (REST and WebSocket)
+     */
+    public Map<String, Object> describe(ExportJob job) {
+        Map<String, Object> view = new HashMap<>();
+        view.put("jobId", job.getId());
+        view.put("type", job.getType());
+        view.put("targetId", job.getTargetId());
+        view.put("status", job.getStatus());
+        view.put("rowsWritten", job.getRowsWritten());
+        view.put("totalRows", job.getTotalRows());
+        view.put("progress", job.getStatus() == ExportJob.Status.COMPLETED ? 100
+                : job.getTotalRows() > 0 ? (int) Math.min(99, job.getRowsWritten() * 100 / job.getTotalRows()) : 0);
+        view.put("filename", job.getFilename());
+        view.put("error", job.getError());
+        if (job.getStatus() == ExportJob.Status.COMPLETED) {
+            view.put("downloadUrl", "/api/exports/" + job.getId() + "/download");
+        }
+        return view;
+    }
+
+    private ExportJob submit(ExportJob.Type type, Long targetId, String cacheKey, String filename,
+                             String username, JobBody body) {
+        synchronized (jobIdsByCacheKey) {
+            String existingId = jobIdsByCacheKey.get(cacheKey);
+            ExportJob existing = existingId != null ? jobs.get(existingId) : null;
+            if (existing != null && existing.getStatus() != ExportJob.Status.FAILED) {
+                existing.getSubscribers().add(username);
+                return existing;
+            }
+
+            ExportJob job = new ExportJob(UUID.randomUUID().toString(), type, targetId, cacheKey, username, filename);
+            job.getSubscribers().add(username);
+            // Registered before it can start, so its first notification already finds it by id
+            jobs.put(job.getId(), job);
+            jobIdsByCacheKey.put(cacheKey, job.getId());
+            try {
+                executor.execute(() -> run(job, body));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.getId());
+                jobIdsByCacheKey.remove(cacheKey, job.getId());
+                throw new RuntimeException("Too many exports in progress, please try again shortly");
+            }
+            return job;
+        }
+    }
+
+    private void run(ExportJob job, JobBody body) {
+        job.setStatus(ExportJob.Status.RUNNING);
+        notify(job);
+        try {
+            body.run(job);
+            job.setCompletedAt(Instant.now());
+            job.setStatus(ExportJob.Status.COMPLETED);
+        } catch (Exception e) {
+            log.warn("Export job {} ({} {}) failed", job.getId(), job.getType(), job.getTargetId(), e);
+            job.setError(e.getMessage());
+            job.setCompletedAt(Instant.now());
+            job.setStatus(ExportJob.Status.FAILED);
+        }
+        notify(job);
+    }
+
+    private void writeFile(ExportJob job, ExportWriter writer) throws IOException {
+        Path partial = storeDir.resolve(job.getId() + ".part");
+        Path file = storeDir.resolve(job.getId() + ".xlsx");
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            writer.write(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        job.setFile(file);
+    }
+
+    private void progress(ExportJob job, long rows) {
+        job.setRowsWritten(rows);
+        notify(job);
+    }
+
+    private void notify(ExportJob job) {
+        Map<String, Object> view = describe(job);
+        for (String username : job.getSubscribers()) {
+            try {
+                webSocketService.sendToUser(username, USER_DESTINATION, view);
+            } catch (RuntimeException e) {
+                log.debug("Could not notify {} about export job {}", username, job.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * Drop finished jobs (and their files) once they are older than the TTL
+     */
+    @Scheduled(fixedDelayString = "${export.jobs.cleanup-interval-ms:60000}")
+    public void removeExpired() {
+        Instant cutoff = Instant.now().minus(ttl);
+        for (ExportJob job : new ArrayList<>(jobs.values())) {
+            if (job.getCompletedAt() == null || job.getCompletedAt().isAfter(cutoff)) {
+                continue;
+            }
+            jobs.remove(job.getId());
+            jobIdsByCacheKey.remove(job.getCacheKey(), job.getId());
+            if (job.getFile() != null) {
+                try {
+                    Files.deleteIfExists(job.getFile());
+                } catch (IOException e) {
+                    log.warn("Could not delete expired export {}", job.getFile(), e);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface JobBody {
+        void run(ExportJob job) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ExportWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,131 @@
+package com.taskmanagement.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor for password hashing and verification (BCrypt), so a burst of logins
+ * uses at most security.password-hashing.threads cores and page requests keep their CPU.
+ *
+ * The login request still waits for its own result, but only up to timeout-ms, and when
+ * queue-capacity hashes are already waiting it is turned away at once ({@link BusyException})
+ * instead of holding a Tomcat worker in an unbounded line.
+ */
+@Slf4j
+@Component
+public class PasswordHashingPool {
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMs;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+
+    public PasswordHashingPool(@Value("${security.password-hashing.threads:0}") int threads,
+                               @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                               @Value("${security.password-hashing.timeout-ms:10000}") long timeoutMs) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.timeoutMs = timeoutMs;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Run a hashing task on the pool and wait for its result
+     */
+    public <T> T execute(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                totalWaitNanos.addAndGet(startedAt - submittedAt);
+                try {
+                    return task.get();
+                } finally {
+                    totalRunNanos.addAndGet(System.nanoTime() - startedAt);
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("Password hashing queue full ({} waiting), request rejected", queueCapacity);
+            throw new BusyException("Too many password checks at once, please retry in a moment");
+        }
+        maxQueueDepth.accumulateAndGet(executor.getQueue().size(), Math::max);
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.incrementAndGet();
+            throw new BusyException("Password check is taking too long, please retry in a moment");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusyException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Whether hashes are waiting for a thread
+     */
+    public boolean hasQueue() {
+        return !executor.getQueue().isEmpty();
+    }
+
+    public Map<String, Object> stats() {
+        long done = completed.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", executor.getCorePoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("maxQueueDepth", maxQueueDepth.get());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("completed", done);
+        stats.put("rejected", rejected.get());
+        stats.put("timedOut", timedOut.get());
+        stats.put("avgWaitMillis", done == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / done);
+        stats.put("avgRunMillis", done == 0 ? 0.0 : totalRunNanos.get() / 1_000_000.0 / done);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The pool is saturated (queue full or result not ready in time)
+     */
+    public static class BusyException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public BusyException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.taskmanagement.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sparse ordering keys for user-ordered rows (board entries, groups, tasks).
+ *
+ * Positions are spaced {@link #GAP} apart, so appending or moving a row writes only
+ * that row: it takes a key halfway between its new neighbours. When the gap between
+ * two neighbours gets small the scope is queued for a background rebalance (renumber
+ * all rows evenly); only if a gap is fully used up is it rebalanced inline.
+ * Callers must be in a transaction: the parent row is locked for the rest of it so
+ * concurrent inserts and moves in the same scope are serialized.
+ */
+@Slf4j
+@Service
+public class RowOrderingService {
+
+    public static final long GAP = 1L << 20;
+
+    // Below this many free keys between neighbours, schedule a background rebalance
+    private static final long MIN_GAP = 64;
+
+    // Table names are used as-is in SQL; GROUPS is a reserved word since MySQL 8.0.2, hence the backquotes
+    public enum Scope {
+        BOARD_ENTRIES("shipment_entries", "board_id", "boards"),
+        BOARD_GROUPS("`groups`", "board_id", "boards"),
+        GROUP_TASKS("tasks", "group_id", "`groups`");
+
+        private final String table;
+        private final String scopeColumn;
+        private final String parentTable;
+
+        Scope(String table, String scopeColumn, String parentTable) {
+            this.table = table;
+            this.scopeColumn = scopeColumn;
+            this.parentTable = parentTable;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<Map.Entry<Scope, Long>> pendingRebalances = ConcurrentHashMap.newKeySet();
+
+    public RowOrderingService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Position for a new row at the end of the scope
+     */
+    public long appendPosition(Scope scope, Long scopeId) {
+        lockScope(scope, scopeId);
+        Long max = jdbcTemplate.queryForObject(
+                "SELECT MAX(position) FROM " + scope.table + " WHERE " + scope.scopeColumn + " = ?",
+                Long.class, scopeId);
+        return max == null ? GAP : max + GAP;
+    }
+
+    /**
+     * Position for the given row placed between two neighbours (either may be null for the start/end).
+     * The neighbours must be adjacent apart from the row itself, as the caller last saw them; otherwise
+     * throws {@link StaleNeighboursException}, and the caller should reload the order.
+     */
+    public long positionBetween(Scope scope, Long scopeId, Long rowId, Long previousId, Long nextId) {
+        lockScope(scope, scopeId);
+
+        Long previous = previousId != null ? position(scope, scopeId, previousId) : null;
+        Long next = nextId != null ? position(scope, scopeId, nextId) : null;
+        if (previous != null && next != null
+                && (previous > next || (previous.equals(next) && previousId >= nextId))) {
+            throw new StaleNeighboursException("Neighbours " + previousId + " and " + nextId + " are in the wrong order");
+        }
+        if (countRowsBetween(scope, scopeId, rowId, previous, previousId, next, nextId) > 0) {
+            throw new StaleNeighboursException("Neighbours " + previousId + " and " + nextId + " are no longer adjacent");
+        }
+
+        // With no other row beyond a single neighbour, a key GAP away from it is free
+        if (previous == null && next == null) {
+            return appendPosition(scope, scopeId);
+        }
+        if (previous == null) {
+            return next - GAP;
+        }
+        if (next == null) {
+            return previous + GAP;
+        }
+
+        long room = next - previous;
+        if (room < 2) {
+            // Gap used up (or neighbours share a key, room 0): renumber now, then place
+            rebalance(scope, scopeId);
+            previous = position(scope, scopeId, previousId);
+            next = position(scope, scopeId, nextId);
+            room = next - previous;
+        } else if (room < MIN_GAP) {
+            requestRebalance(scope, scopeId);
+        }
+        return previous + room / 2;
+    }
+
+    /**
+     * Renumber every row of the scope GAP apart, keeping the current order
+     */
+    public int rebalance(Scope scope, Long scopeId) {
+        lockScope(scope, scopeId);
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM " + scope.table + " WHERE " + scope.scopeColumn + " = ? ORDER BY position, id",
+                Long.class, scopeId);
+
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            args.add(new Object[]{(i + 1) * GAP, ids.get(i)});
+        }
+        jdbcTemplate.batchUpdate("UPDATE " + scope.table + " SET position = ? WHERE id = ?", args);
+        return ids.size();
+    }
+
+    public void requestRebalance(Scope scope, Long scopeId) {
+        pendingRebalances.add(Map.entry(scope, scopeId));
+    }
+
+    @Scheduled(fixedDelayString = "${ordering.rebalance-interval-ms:10000}")
+    public void rebalancePending() {
+        for (Map.Entry<Scope, Long> pending : new ArrayList<>(pendingRebalances)) {
+            pendingRebalances.remove(pending);
+            try {
+                Integer rows = transactionTemplate.execute(status -> rebalance(pending.getKey(), pending.getValue()));
+                log.debug("Rebalanced {} row(s) of {} {}", rows, pending.getKey(), pending.getValue());
+            } catch (RuntimeException e) {
+                log.warn("Rebalance of {} {} failed: {}", pending.getKey(), pending.getValue(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rows other than the given one strictly between two keys in (position, id) order; a null key is open-ended
+     */
+    private int countRowsBetween(Scope scope, Long scopeId, Long rowId, Long previous, Long previousId,
+                                 Long next, Long nextId) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM " + scope.table
+                + " WHERE " + scope.scopeColumn + " = ? AND id <> ?");
+        List<Object> args = new ArrayList<>(List.of(scopeId, rowId));
+        if (previous != null) {
+            sql.append(" AND (position > ? OR (position = ? AND id > ?))");
+            args.addAll(List.of(previous, previous, previousId));
+        }
+        if (next != null) {
+            sql.append(" AND (position < ? OR (position = ? AND id < ?))");
+            args.addAll(List.of(next, next, nextId));
+        }
+        Integer rows = jdbcTemplate.queryForObject(sql.toString(), Integer.class, args.toArray());
+        return rows != null ? rows : 0;
+    }
+
+    private Long position(Scope scope, Long scopeId, Long id) {
+        List<Long> positions = jdbcTemplate.queryForList(
+                "SELECT position FROM " + scope.table + " WHERE id = ? AND " + scope.scopeColumn + " = ?",
+                Long.class, id, scopeId);
+        if (positions.isEmpty()) {
+            throw new RuntimeException("Neighbour row not found: " + id);
+        }
+        return positions.get(0);
+    }
+
+    private void lockScope(Scope scope, Long scopeId) {
+        jdbcTemplate.queryForList("SELECT id FROM " + scope.parentTable + " WHERE id = ? FOR UPDATE", Long.class, scopeId);
+    }
+
+    /**
+     * The neighbours given for a move are not (or no longer) adjacent: the caller's view of the order is stale
+     */
+    public static class StaleNeighboursException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public StaleNeighboursException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.entity.ShipmentCycle;
+import com.taskmanagement.enums.ShipmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Published whenever a shipment or anything below it (lighters, trucks, products) changes.
+ * Both IDs are null when shipments of every institute may have changed (totals repair).
+ *
+ * Carries the shipment's running totals before and after the change (null when the shipment
+ * did not exist before / no longer exists) so listeners can apply the difference instead of
+ * reloading; both are null when they are unknown (bulk import), and listeners must reload.
+ */
+@Getter
+@AllArgsConstructor
+public class ShipmentChangedEvent {
+
+    public static final String SHIPMENT_CREATED = "SHIPMENT_CREATED";
+    public static final String SHIPMENT_UPDATED = "SHIPMENT_UPDATED";
+    public static final String SHIPMENT_DELETED = "SHIPMENT_DELETED";
+    public static final String SHIPMENT_IMPORTED = "SHIPMENT_IMPORTED";
+    public static final String LIGHTER_ADDED = "LIGHTER_ADDED";
+    public static final String TRUCK_ADDED = "TRUCK_ADDED";
+    public static final String TOTALS_REPAIRED = "TOTALS_REPAIRED";
+
+    private final Long instituteId;
+    private final Long shipmentId;
+    private final String type;
+    private final Totals before;
+    private final Totals after;
+    private final Map<String, Object> item; // the added lighter or truck, if any
+
+    public ShipmentChangedEvent(Long instituteId, Long shipmentId, String type) {
+        this(instituteId, shipmentId, type, null, null, null);
+    }
+
+    /**
+     * Snapshot of a shipment's running totals
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Totals {
+        private final String motherVesselName;
+        private final String consignee;
+        private final ShipmentStatus status;
+        private final String flowSummary;
+        private final double incomingQuantity;
+        private final double loadedQuantity;
+        private final double unloadedQuantity;
+        private final double cost;
+        private final int lighters;
+        private final int trucks;
+
+        public static Totals of(ShipmentCycle shipment) {
+            return new Totals(
+                    shipment.getMotherVesselName(),
+                    shipment.getConsignee(),
+                    shipment.getStatus(),
+                    shipment.getFlowSummary(),
+                    orZero(shipment.getTotalIncomingQuantity()),
+                    orZero(shipment.getTotalLoadedQuantity()),
+                    orZero(shipment.getTotalUnloadedQuantity()),
+                    shipment.calculateTotalCost(),
+                    shipment.getLighterCount() != null ? shipment.getLighterCount() : 0,
+                    shipment.getTruckCount() != null ? shipment.getTruckCount() : 0);
+        }
+
+        /**
+         * These totals with trucks added below one of the shipment's lighters
+         */
+        public Totals plusTrucks(int addedTrucks, double addedUnloadedQuantity, double addedCost) {
+            return new Totals(motherVesselName, consignee, status,
+                    ShipmentCycle.formatFlowSummary(motherVesselName, lighters, trucks + addedTrucks),
+                    incomingQuantity, loadedQuantity, unloadedQuantity + addedUnloadedQuantity,
+                    cost + addedCost, lighters, trucks + addedTrucks);
+        }
+
+        private static double orZero(Double value) {
+            return value != null ? value : 0.0;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.taskmanagement.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.dto.EntrySearchCriteria;
+import com.taskmanagement.entity.ShipmentEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Filtered, sorted and keyset-paginated queries over a board's entries.
+ *
+ * Text filters are prefix matches, so they can use the (board_id, column) indexes. Any
+ * combination of sortable fields may be given; id is always the final tie-breaker, and
+ * nulls sort as the smallest value (MySQL's native order, emulated elsewhere). The cursor
+ * carries the last row's sort values, so a page is a range scan rather than an OFFSET.
+ */
+@Service
+public class ShipmentEntrySearchService {
+
+    // Sortable fields (entity attribute names) and how to read their cursor value from a row
+    private static final Map<String, Function<ShipmentEntry, Object>> SORT_FIELDS = new LinkedHashMap<>();
+
+    static {
+        SORT_FIELDS.put("position", ShipmentEntry::getPosition);
+        SORT_FIELDS.put("date", ShipmentEntry::getDate);
+        SORT_FIELDS.put("consignee", ShipmentEntry::getConsignee);
+        SORT_FIELDS.put("lighterVesselName", ShipmentEntry::getLighterVesselName);
+        SORT_FIELDS.put("vesselDestination", ShipmentEntry::getVesselDestination);
+        SORT_FIELDS.put("challanNo", ShipmentEntry::getChallanNo);
+        SORT_FIELDS.put("convertingVessel", ShipmentEntry::getConvertingVessel);
+        SORT_FIELDS.put("noOfTrucks", ShipmentEntry::getNoOfTrucks);
+        SORT_FIELDS.put("finalDestination", ShipmentEntry::getFinalDestination);
+        SORT_FIELDS.put("itemName", ShipmentEntry::getItemName);
+        SORT_FIELDS.put("billableQuantity", ShipmentEntry::getBillableQuantity);
+        SORT_FIELDS.put("totalUnitCosting", ShipmentEntry::getTotalUnitCosting);
+        SORT_FIELDS.put("finalAmount", ShipmentEntry::getFinalAmount);
+    }
+
+    private static final int MAX_SORT_KEYS = 4;
+
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${board.entries.window-size:200}")
+    private int defaultPageSize;
+
+    @Value("${board.entries.max-window-size:1000}")
+    private int maxPageSize;
+
+    public ShipmentEntrySearchService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * One page of the board's entries matching the criteria. Fetches one row more than the
+     * page so hasMore is known without a count query.
+     */
+    @Transactional(readOnly = true)
+    public EntryPage search(Long boardId, EntrySearchCriteria criteria) {
+        int pageSize = criteria.getLimit() == null ? defaultPageSize : Math.max(1, Math.min(criteria.getLimit(), maxPageSize));
+        List<SortKey> keys = parseSort(criteria.getSort());
+        boolean idAscending = keys.get(0).ascending;
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ShipmentEntry> query = cb.createQuery(ShipmentEntry.class);
+        Root<ShipmentEntry> root = query.from(ShipmentEntry.class);
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(root.get("board").get("id"), boardId));
+        addPrefix(cb, where, root.get("consignee"), criteria.getConsignee());
+        addPrefix(cb, where, root.get("lighterVesselName"), criteria.getLighterVessel());
+        addPrefix(cb, where, root.get("challanNo"), criteria.getChallanPrefix());
+        addPrefix(cb, where, root.get("itemName"), criteria.getItem());
+        addPrefix(cb, where, root.get("finalDestination"), criteria.getDestination());
+        if (criteria.getFromDate() != null) {
+            where.add(cb.greaterThanOrEqualTo(root.get("date"), criteria.getFromDate()));
+        }
+        if (criteria.getToDate() != null) {
+            where.add(cb.lessThanOrEqualTo(root.get("date"), criteria.getToDate()));
+        }
+        if (criteria.getCursor() != null && !criteria.getCursor().isBlank()) {
+            List<Object> values = decodeCursor(criteria.getCursor(), keys, root);
+            Long lastId = (Long) values.remove(values.size() - 1);
+            where.add(after(cb, root, keys, values, 0, lastId, idAscending));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        for (SortKey key : keys) {
+            JpaOrder order = (JpaOrder) (key.ascending ? cb.asc(root.get(key.field)) : cb.desc(root.get(key.field)));
+            orders.add(order.nullPrecedence(key.ascending ? NullPrecedence.FIRST : NullPrecedence.LAST));
+        }
+        orders.add(idAscending ? cb.asc(root.get("id")) : cb.desc(root.get("id")));
+
+        query.select(root).where(where.toArray(new Predicate[0])).orderBy(orders);
+        List<ShipmentEntry> rows = entityManager.createQuery(query).setMaxResults(pageSize + 1).getResultList();
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ShipmentEntry> page = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        return new EntryPage(page, hasMore, hasMore ? encodeCursor(page.get(page.size() - 1), keys) : null);
+    }
+
+    // ================== FILTERS AND KEYSET ==================
+
+    private static void addPrefix(CriteriaBuilder cb, List<Predicate> where, Path<String> path, String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return;
+        }
+        // '!' as the escape character: a backslash would need escaping itself in MySQL string literals
+        String escaped = prefix.trim().replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        where.add(cb.like(path, escaped + "%", '!'));
+    }
+
+    /**
+     * Rows strictly after the cursor in (keys..., id) order, with nulls as the smallest value
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Root<ShipmentEntry> root, List<SortKey> keys,
+                                   List<Object> values, int index, Long lastId, boolean idAscending) {
+        if (index == keys.size()) {
+            Path<Long> id = root.get("id");
+            return idAscending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+        }
+
+        SortKey key = keys.get(index);
+        Path path = root.get(key.field);
+        Comparable value = (Comparable) values.get(index);
+        Predicate tail = after(cb, root, keys, values, index + 1, lastId, idAscending);
+
+        if (value == null) {
+            Predicate nullAndTail = cb.and(cb.isNull(path), tail);
+            return key.ascending ? cb.or(nullAndTail, cb.isNotNull(path)) : nullAndTail;
+        }
+        Predicate equalAndTail = cb.and(cb.equal(path, value), tail);
+        return key.ascending
+                ? cb.or(cb.greaterThan(path, value), equalAndTail)
+                : cb.or(cb.lessThan(path, value), cb.isNull(path), equalAndTail);
+    }
+
+    private static List<SortKey> parseSort(String sort) {
+        List<SortKey> keys = new ArrayList<>();
+        if (sort != null) {
+            for (String part : sort.split(",")) {
+                String token = part.trim();
+                if (token.isEmpty()) {
+                    continue;
+                }
+                boolean ascending = !token.startsWith("-");
+                String field = token.replaceFirst("^[-+]", "");
+                if (!SORT_FIELDS.containsKey(field)) {
+                    throw new IllegalArgumentException("Cannot sort by " + field + "; sortable fields are " + SORT_FIELDS.keySet());
+                }
+                if (keys.stream().noneMatch(key -> key.field.equals(field))) {
+                    keys.add(new SortKey(field, ascending));
+                }
+            }
+        }
+        if (keys.size() > MAX_SORT_KEYS) {
+            throw new IllegalArgumentException("At most " + MAX_SORT_KEYS + " sort fields are allowed");
+        }
+        if (keys.isEmpty()) {
+            keys.add(new SortKey("position", true));
+        }
+        return keys;
+    }
+
+    // The cursor is base64url JSON: [sort spec, value per sort key..., id]
+    private String encodeCursor(ShipmentEntry last, List<SortKey> keys) {
+        List<String> values = new ArrayList<>();
+        values.add(sortSpec(keys));
+        for (SortKey key : keys) {
+            Object value = SORT_FIELDS.get(key.field).apply(last);
+            values.add(value != null ? value.toString() : null);
+        }
+        values.add(last.getId().toString());
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(values));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Object> decodeCursor(String cursor, List<SortKey> keys, Root<ShipmentEntry> root) {
+        List<String> raw;
+        try {
+            raw = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), new TypeReference<List<String>>() { });
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (raw.size() != keys.size() + 2 || !sortSpec(keys).equals(raw.get(0)) || raw.get(raw.size() - 1) == null) {
+            throw new IllegalArgumentException("Cursor does not belong to this sort order");
+        }
+
+        List<Object> values = new ArrayList<>();
+        try {
+            for (int i = 0; i < keys.size(); i++) {
+                values.add(parseValue(root.get(keys.get(i).field).getJavaType(), raw.get(i + 1)));
+            }
+            values.add(Long.valueOf(raw.get(raw.size() - 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return values;
+    }
+
+    private static Object parseValue(Class<?> type, String raw) {
+        if (raw == null || type == String.class) {
+            return raw;
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.parse(raw);
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(raw);
+        }
+        if (type == Long.class) {
+            return Long.valueOf(raw);
+        }
+        if (type == Integer.class) {
+            return Integer.valueOf(raw);
+        }
+        throw new IllegalArgumentException("Unsupported cursor type " + type.getSimpleName());
+    }
+
+    private static String sortSpec(List<SortKey> keys) {
+        return String.join(",", keys.stream().map(key -> (key.ascending ? "" : "-") + key.field).toList());
+    }
+
+    @AllArgsConstructor
+    private static class SortKey {
+        private final String field;
+        private final boolean ascending;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class EntryPage {
+        private final List<ShipmentEntry> entries;
+        private final boolean hasMore;
+        private final String nextCursor;
+    }
+}
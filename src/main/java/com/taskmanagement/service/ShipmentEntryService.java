@@ -1,12 +1,22 @@
 package com.taskmanagement.service;
 
+import com.taskmanagement.dto.EntryCellEditDTO;
+import com.taskmanagement.entity.Board;
 import com.taskmanagement.entity.ShipmentEntry;
+import com.taskmanagement.entity.User;
 import com.taskmanagement.repository.ShipmentEntryRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -14,24 +24,113 @@ public class ShipmentEntryService {
 
     private final ShipmentEntryRepository shipmentEntryRepository;
 
-    public ShipmentEntryService(ShipmentEntryRepository shipmentEntryRepository) {
+    @Value("${board.entries.batch-max-edits:5000}")
+    private int batchMaxEdits;
+
+    @Value("${board.entries.window-size:200}")
+    private int defaultWindowSize;
+
+    @Value("${board.entries.max-window-size:1000}")
+    private int maxWindowSize;
+
+    private final RowOrderingService rowOrderingService;
+
+    public ShipmentEntryService(ShipmentEntryRepository shipmentEntryRepository, RowOrderingService rowOrderingService) {
         this.shipmentEntryRepository = shipmentEntryRepository;
+        this.rowOrderingService = rowOrderingService;
     }
 
     public List<ShipmentEntry> findByBoardId(Long boardId) {
         return shipmentEntryRepository.findByBoardIdOrderByPositionAsc(boardId);
     }
 
-    public Optional<ShipmentEntry> findById(Long id) {
-        return shipmentEntryRepository.findById(id);
+    /**
+     * Keyset window of a board's entries ordered by (position, id).
+     * The cursor row's current position is used when it still exists, so a window
+     * continues correctly after rows were moved or the board was rebalanced.
+     * Fetches one row more than the window so callers can tell whether more rows follow.
+     */
+    @Transactional(readOnly = true)
+    public EntryWindow findWindow(Long boardId, Long afterPosition, Long afterId, Integer limit) {
+        int windowSize = limit == null ? defaultWindowSize : Math.max(1, Math.min(limit, maxWindowSize));
+        if (afterId != null) {
+            afterPosition = shipmentEntryRepository.findByIdAndBoardId(afterId, boardId)
+                    .map(ShipmentEntry::getPosition)
+                    .orElse(afterPosition);
+            if (afterPosition == null) {
+                throw new RuntimeException("Entry not found");
+            }
+        } else if (afterPosition != null) {
+            afterId = 0L;
+        }
+
+        List<ShipmentEntry> rows = shipmentEntryRepository.findWindow(
+                boardId, afterPosition, afterId, PageRequest.of(0, windowSize + 1));
+        boolean hasMore = rows.size() > windowSize;
+        List<ShipmentEntry> window = hasMore ? new ArrayList<>(rows.subList(0, windowSize)) : rows;
+        return new EntryWindow(window, hasMore);
+    }
+
+    /**
+     * Entry count and revenue (sum of finalAmount) per board, computed by the database in one query.
+     * Boards without entries are absent from the map.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, BoardTotals> getBoardTotals(Collection<Long> boardIds) {
+        if (boardIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, BoardTotals> totals = new HashMap<>();
+        for (Object[] row : shipmentEntryRepository.sumRevenueByBoardIds(boardIds)) {
+            BigDecimal revenue = row[2] != null ? new BigDecimal(row[2].toString()) : BigDecimal.ZERO;
+            totals.put((Long) row[0], new BoardTotals(((Number) row[1]).intValue(), revenue));
+        }
+        return totals;
+    }
+
+    /**
+     * New empty entry at the end of the board
+     */
+    public ShipmentEntry createEntry(Board board, User user) {
+        ShipmentEntry entry = new ShipmentEntry();
+        entry.setBoard(board);
+        entry.setCreatedBy(user);
+        entry.setUpdatedBy(user);
+        entry.setPosition(rowOrderingService.appendPosition(RowOrderingService.Scope.BOARD_ENTRIES, board.getId()));
+        return shipmentEntryRepository.save(entry);
+    }
+
+    /**
+     * Move an entry between two neighbours (null for the start or end of the board).
+     * Only the moved row is written. Throws RowOrderingService.StaleNeighboursException
+     * when the neighbours are not adjacent.
+     */
+    public ShipmentEntry moveEntry(Long boardId, Long entryId, Long previousEntryId, Long nextEntryId) {
+        ShipmentEntry entry = shipmentEntryRepository.findByIdAndBoardId(entryId, boardId)
+                .orElseThrow(() -> new RuntimeException("Entry not found"));
+        if (entryId.equals(previousEntryId) || entryId.equals(nextEntryId)) {
+            throw new RuntimeException("An entry cannot be its own neighbour");
+        }
+
+        long position = rowOrderingService.positionBetween(
+                RowOrderingService.Scope.BOARD_ENTRIES, boardId, entryId, previousEntryId, nextEntryId);
+        entry.setPosition(position);
+        return shipmentEntryRepository.save(entry);
+    }
+
+    public Optional<ShipmentEntry> findByIdAndBoardId(Long id, Long boardId) {
+        return shipmentEntryRepository.findByIdAndBoardId(id, boardId);
     }
 
     public ShipmentEntry save(ShipmentEntry entry) {
         return shipmentEntryRepository.save(entry);
     }
 
-    public void deleteById(Long id) {
-        shipmentEntryRepository.deleteById(id);
+    /**
+     * Delete an entry of the given board; false when the board has no such entry
+     */
+    public boolean deleteByIdAndBoardId(Long id, Long boardId) {
+        return shipmentEntryRepository.deleteByIdAndBoardId(id, boardId) > 0;
     }
 
     public boolean existsByChallanNo(String challanNo) {
@@ -41,4 +140,153 @@ public class ShipmentEntryService {
     public Long countByBoardId(Long boardId) {
         return shipmentEntryRepository.countByBoardId(boardId);
     }
+
+    /**
+     * Apply many cell edits to entries of one board in a single transaction.
+     * Each edit succeeds or fails on its own; returns one result per edit (in request order)
+     * and the entries that were changed.
+     *
+     * Changes are only flushed at commit, so a challan number that would break uk_challan_no is
+     * refused here: it must not be held by any other row, nor taken by an earlier edit of the batch.
+     */
+    public BatchEditResult applyEdits(Long boardId, List<EntryCellEditDTO> edits, User user) {
+        if (edits.size() > batchMaxEdits) {
+            throw new RuntimeException("Too many edits in one batch (max " + batchMaxEdits + ")");
+        }
+
+        Set<Long> ids = edits.stream()
+                .map(EntryCellEditDTO::getEntryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ShipmentEntry> entries = ids.isEmpty() ? Map.of() :
+                shipmentEntryRepository.findByBoardIdAndIdIn(boardId, ids).stream()
+                        .collect(Collectors.toMap(ShipmentEntry::getId, Function.identity()));
+
+        Map<Long, String> originalChallans = new HashMap<>();
+        entries.values().forEach(entry -> originalChallans.put(entry.getId(), entry.getChallanNo()));
+        Map<String, Long> claimedChallans = new HashMap<>();
+
+        List<Map<String, Object>> results = new ArrayList<>(edits.size());
+        Map<Long, ShipmentEntry> changed = new LinkedHashMap<>();
+        for (EntryCellEditDTO edit : edits) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("entryId", edit.getEntryId());
+            result.put("field", edit.getField());
+
+            ShipmentEntry entry = edit.getEntryId() != null ? entries.get(edit.getEntryId()) : null;
+            if (entry == null) {
+                result.put("success", false);
+                result.put("error", "Entry not found");
+            } else if ("challanNo".equals(edit.getField())
+                    && !claimChallanNo(entry, edit.getValue(), originalChallans, claimedChallans)) {
+                result.put("success", false);
+                result.put("error", "Challan No " + edit.getValue().toString().trim() + " already exists");
+            } else {
+                try {
+                    updateField(entry, edit.getField(), edit.getValue());
+                    entry.setUpdatedBy(user);
+                    changed.put(entry.getId(), entry);
+                    result.put("success", true);
+                } catch (RuntimeException e) {
+                    result.put("success", false);
+                    result.put("error", "Invalid value for " + edit.getField() + ": " + e.getMessage());
+                }
+            }
+            results.add(result);
+        }
+
+        // Changed entries are managed; dirty checking flushes them as one batch of UPDATEs on commit
+        return new BatchEditResult(results, new ArrayList<>(changed.values()));
+    }
+
+    /**
+     * Whether the entry may take the challan number without breaking uk_challan_no, recording it
+     * for the rest of the batch. A number the entry already held is always allowed; a number another
+     * edit of the batch released is not, since the UPDATEs are not flushed in edit order.
+     */
+    private boolean claimChallanNo(ShipmentEntry entry, Object value,
+                                   Map<Long, String> originalChallans, Map<String, Long> claimedChallans) {
+        String challanNo = value != null ? value.toString().trim() : "";
+        if (challanNo.isEmpty()) {
+            return true;
+        }
+        String key = challanKey(challanNo);
+        String original = originalChallans.get(entry.getId());
+        if (original != null && challanKey(original).equals(key)) {
+            return true;
+        }
+        Long claimedBy = claimedChallans.get(key);
+        if (claimedBy != null) {
+            return claimedBy.equals(entry.getId());
+        }
+        if (shipmentEntryRepository.existsByChallanNo(challanNo)) {
+            return false;
+        }
+        claimedChallans.put(key, entry.getId());
+        return true;
+    }
+
+    // Matches MySQL's default case-insensitive collation on challan_no
+    private static String challanKey(String challanNo) {
+        return challanNo.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Set one editable grid field from its raw (string or number) value
+     */
+    public static void updateField(ShipmentEntry entry, String field, Object value) {
+        String stringValue = value != null ? value.toString().trim() : null;
+        boolean blank = stringValue == null || stringValue.isEmpty();
+
+        switch (field == null ? "" : field) {
+            // Loading Info
+            case "consignee" -> entry.setConsignee(stringValue);
+            case "lighterVesselName" -> entry.setLighterVesselName(stringValue);
+            case "vesselDestination" -> entry.setVesselDestination(stringValue);
+            case "date" -> entry.setDate(blank ? null : LocalDate.parse(stringValue));
+
+            // Unloading & Transit Info
+            case "challanNo" -> entry.setChallanNo(blank ? null : stringValue);
+            case "convertingVessel" -> entry.setConvertingVessel(stringValue);
+            case "noOfTrucks" -> entry.setNoOfTrucks(blank ? null : Integer.parseInt(stringValue));
+            case "dischargingLocation" -> entry.setDischargingLocation(stringValue);
+            case "finalDestination" -> entry.setFinalDestination(stringValue);
+
+            // Product & Financials
+            case "itemName" -> entry.setItemName(stringValue);
+            case "billableQuantity" -> entry.setBillableQuantity(blank ? null : new BigDecimal(stringValue));
+            case "lighterCost" -> entry.setLighterCost(blank ? null : new BigDecimal(stringValue));
+            case "unloadCost" -> entry.setUnloadCost(blank ? null : new BigDecimal(stringValue));
+            case "truckCost" -> entry.setTruckCost(blank ? null : new BigDecimal(stringValue));
+
+            default -> throw new IllegalArgumentException("unknown field");
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class EntryWindow {
+        private final List<ShipmentEntry> entries;
+        private final boolean hasMore;
+
+        public ShipmentEntry getLast() {
+            return entries.isEmpty() ? null : entries.get(entries.size() - 1);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BoardTotals {
+        public static final BoardTotals EMPTY = new BoardTotals(0, BigDecimal.ZERO);
+
+        private final int entryCount;
+        private final BigDecimal revenue;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BatchEditResult {
+        private final List<Map<String, Object>> results;
+        private final List<ShipmentEntry> changedEntries;
+    }
 }
@@ -0,0 +1,58 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.entity.LighterLoading;
+import com.taskmanagement.entity.ShipmentCycle;
+import com.taskmanagement.entity.TruckUnloading;
+import com.taskmanagement.repository.LighterLoadingRepository;
+import com.taskmanagement.repository.ShipmentCycleRepository;
+import com.taskmanagement.repository.TruckUnloadingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Loads a shipment with its full hierarchy (Mother Vessel -> Lighters -> Trucks -> Products)
+ * using one query per level, keyed by the parent IDs of the previous level.
+ * Each query fetches a single bag, so MultipleBagFetchException is avoided and
+ * the number of SELECTs no longer grows with the number of lighters or trucks.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShipmentHierarchyLoader {
+
+    private final ShipmentCycleRepository shipmentCycleRepository;
+    private final LighterLoadingRepository lighterLoadingRepository;
+    private final TruckUnloadingRepository truckUnloadingRepository;
+
+    @Transactional(readOnly = true)
+    public Optional<ShipmentCycle> load(Long shipmentId) {
+        Optional<ShipmentCycle> shipment = shipmentCycleRepository.findByIdWithLighters(shipmentId);
+        shipment.ifPresent(this::fetchTrucksAndProducts);
+        return shipment;
+    }
+
+    private void fetchTrucksAndProducts(ShipmentCycle shipment) {
+        List<Long> lighterIds = shipment.getLighterLoadings().stream()
+                .map(LighterLoading::getId)
+                .toList();
+        if (lighterIds.isEmpty()) {
+            return;
+        }
+
+        // Lighters are already managed, so this initializes their truck collections in place
+        List<LighterLoading> lighters = lighterLoadingRepository.findAllWithTruckUnloadingsByIdIn(lighterIds);
+
+        List<Long> truckIds = lighters.stream()
+                .flatMap(lighter -> lighter.getTruckUnloadings().stream())
+                .map(TruckUnloading::getId)
+                .toList();
+        if (truckIds.isEmpty()) {
+            return;
+        }
+
+        truckUnloadingRepository.findAllWithProductDetailsByIdIn(truckIds);
+    }
+}
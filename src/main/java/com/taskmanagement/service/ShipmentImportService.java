@@ -0,0 +1,866 @@
+package com.taskmanagement.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.taskmanagement.dto.ShipmentDTO;
+import com.taskmanagement.dto.ShipmentImportResultDTO;
+import com.taskmanagement.entity.Institute;
+import com.taskmanagement.entity.ShipmentCycle;
+import com.taskmanagement.entity.User;
+import com.taskmanagement.enums.LoadUnloadStatus;
+import com.taskmanagement.enums.ShipmentStatus;
+import com.taskmanagement.repository.InstituteRepository;
+import com.taskmanagement.repository.ShipmentCycleRepository;
+import com.taskmanagement.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of a shipment manifest (Mother Vessel -> Lighters -> Trucks -> Products).
+ *
+ * The manifest is parsed incrementally and written in bounded chunks: each chunk
+ * inserts its lighters, trucks and products with one JDBC batch per level, and the
+ * IDs generated by each batch are used as foreign keys for the next level. A chunk
+ * may end in the middle of a lighter's trucks; the rest follow in later chunks and
+ * are added to the lighter's running totals, so no lighter is held in memory whole.
+ * Invalid rows are reported and skipped; a failing chunk is rolled back on its own
+ * without aborting the rest of the import.
+ *
+ * JSON manifests have the shape of {@link ShipmentDTO}; the shipment fields must
+ * precede the "lighterLoadings" array, and a lighter's fields its "truckUnloadings".
+ * CSV manifests have one record per line, with the record type in the first column,
+ * and children following their parent:
+ * <pre>
+ * SHIPMENT,consignee,motherVesselName,arrivalDate,totalIncomingQuantity,itemType
+ * LIGHTER,lighterName,destination,unloadingPoint,loadingDate,loadedQuantity,lighterCost
+ * TRUCK,challan,conveyanceName,numberOfTrucks,dischargingLocation,destination,party,unloadingDate,unloadedQuantity,unloadingCost
+ * PRODUCT,item,deliveryQuantity,surveyQuantity,lighterCost,unloadingCost,truckTransportCost
+ * </pre>
+ */
+@Service
+public class ShipmentImportService {
+
+    private static final String INSERT_LIGHTER_SQL =
+            "INSERT INTO lighter_loadings (lighter_name, destination, unloading_point, loading_date, " +
+            "loaded_quantity, lighter_cost, status, lighter_document_path, shipment_cycle_id, " +
+            "total_unloaded_quantity, total_truck_cost, truck_count, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TRUCK_SQL =
+            "INSERT INTO truck_unloadings (challan, conveyance_name, number_of_trucks, discharging_location, " +
+            "destination, party, unloading_date, unloaded_quantity, unloading_cost, status, " +
+            "depends_on_lighter_completion, lighter_loading_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO product_details (item, delivery_quantity, survey_quantity, lighter_cost, " +
+            "unloading_cost, truck_transport_cost, truck_unloading_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SHIPMENT_TOTALS_SQL =
+            "UPDATE shipment_cycles SET lighter_count = lighter_count + ?, truck_count = truck_count + ?, " +
+            "total_loaded_quantity = total_loaded_quantity + ?, total_unloaded_quantity = total_unloaded_quantity + ?, " +
+            "total_cost = total_cost + ?, version = version + 1 WHERE id = ?";
+
+    private static final String UPDATE_LIGHTER_TOTALS_SQL =
+            "UPDATE lighter_loadings SET truck_count = truck_count + ?, " +
+            "total_unloaded_quantity = total_unloaded_quantity + ?, total_truck_cost = total_truck_cost + ?, " +
+            "version = version + 1, updated_at = ? WHERE id = ?";
+
+    private final ShipmentCycleRepository shipmentCycleRepository;
+    private final InstituteRepository instituteRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${shipping.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${shipping.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ShipmentImportService(ShipmentCycleRepository shipmentCycleRepository,
+                                 InstituteRepository instituteRepository,
+                                 UserRepository userRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.shipmentCycleRepository = shipmentCycleRepository;
+        this.instituteRepository = instituteRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Import a JSON manifest shaped like {@link ShipmentDTO}
+     */
+    public ShipmentImportResultDTO importJson(InputStream in, Long instituteId, Long userId) throws IOException {
+        ImportSession session = new ImportSession(instituteId, userId);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RuntimeException("Manifest must be a JSON object");
+            }
+
+            ObjectNode header = objectMapper.createObjectNode();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+
+                if (!"lighterLoadings".equals(field)) {
+                    header.set(field, parser.readValueAsTree());
+                    continue;
+                }
+                if (parser.currentToken() != JsonToken.START_ARRAY) {
+                    throw new RuntimeException("lighterLoadings must be an array");
+                }
+
+                if (session.shipmentId == null) {
+                    session.startShipment(objectMapper.treeToValue(header, ShipmentDTO.class));
+                }
+
+                int lighterIndex = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    readLighter(parser, "lighterLoadings[" + lighterIndex++ + "]", session);
+                }
+            }
+
+            if (session.shipmentId == null) {
+                session.startShipment(objectMapper.treeToValue(header, ShipmentDTO.class));
+            }
+        } catch (IOException | RuntimeException e) {
+            if (session.shipmentId == null) {
+                throw e;
+            }
+            return session.finish(e.getMessage());
+        }
+
+        return session.finish(null);
+    }
+
+    /**
+     * Import a CSV manifest with one SHIPMENT / LIGHTER / TRUCK / PRODUCT record per line
+     */
+    public ShipmentImportResultDTO importCsv(InputStream in, Long instituteId, Long userId) throws IOException {
+        ImportSession session = new ImportSession(instituteId, userId);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            PendingLighter currentLighter = null;
+            PendingTruck currentTruck = null;
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String ref = "line " + lineNumber;
+                List<String> cols = parseCsvLine(line);
+                String type = cols.get(0).trim().toUpperCase();
+
+                try {
+                    switch (type) {
+                        case "SHIPMENT" -> {
+                            if (session.shipmentId != null) {
+                                session.reject(ref, "Only one SHIPMENT record is allowed per manifest");
+                            } else {
+                                session.startShipment(ShipmentDTO.builder()
+                                        .consignee(col(cols, 1))
+                                        .motherVesselName(col(cols, 2))
+                                        .arrivalDate(parseDate(col(cols, 3)))
+                                        .totalIncomingQuantity(parseDouble(col(cols, 4)))
+                                        .itemType(col(cols, 5))
+                                        .build());
+                            }
+                        }
+                        case "LIGHTER" -> {
+                            if (session.shipmentId == null) {
+                                throw new RuntimeException("SHIPMENT record must come first (" + ref + ")");
+                            }
+                            // Hand off the previous lighter; if this row fails to parse its trucks are rejected
+                            session.acceptTruck(currentLighter, currentTruck);
+                            session.endLighter(currentLighter);
+                            currentLighter = null;
+                            currentTruck = null;
+                            currentLighter = session.startLighter(new PendingLighter(ref, ShipmentDTO.LighterLoadingDTO.builder()
+                                    .lighterName(col(cols, 1))
+                                    .destination(col(cols, 2))
+                                    .unloadingPoint(col(cols, 3))
+                                    .loadingDate(parseDate(col(cols, 4)))
+                                    .loadedQuantity(parseDouble(col(cols, 5)))
+                                    .lighterCost(parseDouble(col(cols, 6)))
+                                    .build()));
+                        }
+                        case "TRUCK" -> {
+                            // A truck is complete once the next TRUCK or LIGHTER record starts
+                            session.acceptTruck(currentLighter, currentTruck);
+                            currentTruck = null;
+                            if (currentLighter == null) {
+                                session.reject(ref, "TRUCK record has no preceding valid LIGHTER");
+                            } else {
+                                currentTruck = new PendingTruck(ref, ShipmentDTO.TruckUnloadingDTO.builder()
+                                        .challan(col(cols, 1))
+                                        .conveyanceName(col(cols, 2))
+                                        .numberOfTrucks(parseInteger(col(cols, 3)))
+                                        .dischargingLocation(col(cols, 4))
+                                        .destination(col(cols, 5))
+                                        .party(col(cols, 6))
+                                        .unloadingDate(parseDate(col(cols, 7)))
+                                        .unloadedQuantity(parseDouble(col(cols, 8)))
+                                        .unloadingCost(parseDouble(col(cols, 9)))
+                                        .build());
+                            }
+                        }
+                        case "PRODUCT" -> {
+                            if (currentTruck == null) {
+                                session.reject(ref, "PRODUCT record has no preceding valid TRUCK");
+                            } else {
+                                currentTruck.products.add(new PendingProduct(ref, ShipmentDTO.ProductDetailDTO.builder()
+                                        .item(col(cols, 1))
+                                        .deliveryQuantity(parseDouble(col(cols, 2)))
+                                        .surveyQuantity(parseDouble(col(cols, 3)))
+                                        .lighterCost(parseDouble(col(cols, 4)))
+                                        .unloadingCost(parseDouble(col(cols, 5)))
+                                        .truckTransportCost(parseDouble(col(cols, 6)))
+                                        .build()));
+                            }
+                        }
+                        default -> session.reject(ref, "Unknown record type: " + type);
+                    }
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    session.reject(ref, "Invalid value: " + e.getMessage());
+                }
+            }
+
+            if (session.shipmentId == null) {
+                throw new RuntimeException("Manifest has no SHIPMENT record");
+            }
+            session.acceptTruck(currentLighter, currentTruck);
+            session.endLighter(currentLighter);
+        } catch (IOException | RuntimeException e) {
+            if (session.shipmentId == null) {
+                throw e;
+            }
+            return session.finish(e.getMessage());
+        }
+
+        return session.finish(null);
+    }
+
+    /**
+     * Stream one lighter object: its fields are collected first, then each truck is
+     * read and handed to the session on its own
+     */
+    private void readLighter(JsonParser parser, String ref, ImportSession session) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            session.reject(ref, "Invalid lighter: expected an object");
+            return;
+        }
+
+        ObjectNode fields = objectMapper.createObjectNode();
+        PendingLighter lighter = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            if (!"truckUnloadings".equals(field)) {
+                fields.set(field, parser.readValueAsTree());
+                continue;
+            }
+            if (lighter == null) {
+                lighter = session.startLighter(toPendingLighter(fields, ref));
+            }
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("truckUnloadings must be an array (" + ref + ")");
+            }
+
+            int truckIndex = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode truckNode = parser.readValueAsTree();
+                session.acceptTruck(lighter, toPendingTruck(truckNode, ref + ".truckUnloadings[" + truckIndex++ + "]", session));
+            }
+        }
+
+        if (lighter == null) {
+            lighter = session.startLighter(toPendingLighter(fields, ref));
+        }
+        session.endLighter(lighter);
+    }
+
+    private PendingLighter toPendingLighter(JsonNode node, String ref) {
+        try {
+            return new PendingLighter(ref, objectMapper.treeToValue(node, ShipmentDTO.LighterLoadingDTO.class));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            PendingLighter invalid = new PendingLighter(ref, null);
+            invalid.rejection = "Invalid lighter: " + e.getMessage();
+            return invalid;
+        }
+    }
+
+    private PendingTruck toPendingTruck(JsonNode node, String ref, ImportSession session) {
+        ShipmentDTO.TruckUnloadingDTO truckDTO;
+        try {
+            truckDTO = objectMapper.treeToValue(node, ShipmentDTO.TruckUnloadingDTO.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            session.reject(ref, "Invalid truck: " + e.getMessage());
+            return null;
+        }
+
+        PendingTruck truck = new PendingTruck(ref, truckDTO);
+        List<ShipmentDTO.ProductDetailDTO> products = truckDTO.getProductDetails();
+        if (products != null) {
+            for (int p = 0; p < products.size(); p++) {
+                truck.products.add(new PendingProduct(ref + ".productDetails[" + p + "]", products.get(p)));
+            }
+        }
+        truckDTO.setProductDetails(new ArrayList<>());
+        return truck;
+    }
+
+    private String violations(Object dto) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // ================== CHUNK WRITER ==================
+
+    private List<Long> batchInsert(String sql, int size, RowBinder binder) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) con -> {
+            List<Long> ids = new ArrayList<>(size);
+            try (PreparedStatement ps = con.prepareStatement(sql, new String[]{"id"})) {
+                for (int i = 0; i < size; i++) {
+                    binder.bind(ps, i);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+            }
+            if (ids.size() != size) {
+                throw new SQLException("Expected " + size + " generated keys but got " + ids.size());
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Write one chunk: lighters not yet in the database with the trucks buffered for them,
+     * plus further trucks of lighters written by an earlier chunk.
+     *
+     * @return IDs generated for the new lighters, in chunk order
+     */
+    private List<Long> writeChunk(Long shipmentId, List<PendingLighter> lighters) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<PendingLighter> newLighters = lighters.stream().filter(l -> l.id == null).toList();
+        List<Long> newLighterIds = newLighters.isEmpty() ? List.of() : batchInsert(INSERT_LIGHTER_SQL, newLighters.size(), (ps, i) -> {
+            PendingLighter lighter = newLighters.get(i);
+            ShipmentDTO.LighterLoadingDTO dto = lighter.dto;
+            ps.setString(1, dto.getLighterName());
+            ps.setString(2, dto.getDestination());
+            ps.setString(3, dto.getUnloadingPoint());
+            ps.setObject(4, dto.getLoadingDate());
+            ps.setDouble(5, dto.getLoadedQuantity());
+            ps.setDouble(6, dto.getLighterCost() != null ? dto.getLighterCost() : 0.0);
+            ps.setString(7, (dto.getStatus() != null ? dto.getStatus() : LoadUnloadStatus.PENDING).name());
+            ps.setString(8, dto.getLighterDocumentPath());
+            ps.setLong(9, shipmentId);
+            ps.setDouble(10, lighter.unloadedQuantity());
+            ps.setDouble(11, lighter.truckCost());
+            ps.setInt(12, lighter.trucks.size());
+            ps.setTimestamp(13, now);
+            ps.setTimestamp(14, now);
+        });
+
+        // Lighters continued from an earlier chunk: add this chunk's trucks to their running totals
+        List<Object[]> continued = lighters.stream()
+                .filter(l -> l.id != null && !l.trucks.isEmpty())
+                .map(l -> new Object[]{l.trucks.size(), l.unloadedQuantity(), l.truckCost(), now, l.id})
+                .toList();
+        if (!continued.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_LIGHTER_TOTALS_SQL, continued);
+        }
+
+        // Running totals on the shipment row, applied as a delta for this chunk
+        jdbcTemplate.update(UPDATE_SHIPMENT_TOTALS_SQL,
+                newLighters.size(),
+                lighters.stream().mapToInt(l -> l.trucks.size()).sum(),
+                newLighters.stream().mapToDouble(l -> l.dto.getLoadedQuantity()).sum(),
+                lighters.stream().mapToDouble(PendingLighter::unloadedQuantity).sum(),
+                newLighters.stream().mapToDouble(l -> orZero(l.dto.getLighterCost())).sum()
+                        + lighters.stream().mapToDouble(PendingLighter::truckCost).sum(),
+                shipmentId);
+
+        List<Long> lighterIds = new ArrayList<>(lighters.size());
+        int next = 0;
+        for (PendingLighter lighter : lighters) {
+            lighterIds.add(lighter.id != null ? lighter.id : newLighterIds.get(next++));
+        }
+
+        List<PendingTruck> trucks = new ArrayList<>();
+        List<Long> truckLighterIds = new ArrayList<>();
+        for (int i = 0; i < lighters.size(); i++) {
+            for (PendingTruck truck : lighters.get(i).trucks) {
+                trucks.add(truck);
+                truckLighterIds.add(lighterIds.get(i));
+            }
+        }
+        if (trucks.isEmpty()) {
+            return newLighterIds;
+        }
+
+        List<Long> truckIds = batchInsert(INSERT_TRUCK_SQL, trucks.size(), (ps, i) -> {
+            ShipmentDTO.TruckUnloadingDTO dto = trucks.get(i).dto;
+            ps.setString(1, dto.getChallan());
+            ps.setString(2, dto.getConveyanceName());
+            ps.setInt(3, dto.getNumberOfTrucks() != null ? dto.getNumberOfTrucks() : 1);
+            ps.setString(4, dto.getDischargingLocation());
+            ps.setString(5, dto.getDestination());
+            ps.setString(6, dto.getParty());
+            ps.setObject(7, dto.getUnloadingDate());
+            ps.setDouble(8, dto.getUnloadedQuantity());
+            ps.setDouble(9, dto.getUnloadingCost() != null ? dto.getUnloadingCost() : 0.0);
+            ps.setString(10, (dto.getStatus() != null ? dto.getStatus() : LoadUnloadStatus.PENDING).name());
+            ps.setBoolean(11, dto.getDependsOnLighterCompletion() != null ? dto.getDependsOnLighterCompletion() : true);
+            ps.setLong(12, truckLighterIds.get(i));
+            ps.setTimestamp(13, now);
+            ps.setTimestamp(14, now);
+        });
+
+        List<PendingProduct> products = new ArrayList<>();
+        List<Long> productTruckIds = new ArrayList<>();
+        for (int i = 0; i < trucks.size(); i++) {
+            for (PendingProduct product : trucks.get(i).products) {
+                products.add(product);
+                productTruckIds.add(truckIds.get(i));
+            }
+        }
+        if (products.isEmpty()) {
+            return newLighterIds;
+        }
+
+        batchInsert(INSERT_PRODUCT_SQL, products.size(), (ps, i) -> {
+            ShipmentDTO.ProductDetailDTO dto = products.get(i).dto;
+            ps.setString(1, dto.getItem());
+            setNullableDouble(ps, 2, dto.getDeliveryQuantity());
+            setNullableDouble(ps, 3, dto.getSurveyQuantity());
+            ps.setDouble(4, dto.getLighterCost() != null ? dto.getLighterCost() : 0.0);
+            ps.setDouble(5, dto.getUnloadingCost() != null ? dto.getUnloadingCost() : 0.0);
+            ps.setDouble(6, dto.getTruckTransportCost() != null ? dto.getTruckTransportCost() : 0.0);
+            ps.setLong(7, productTruckIds.get(i));
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+        return newLighterIds;
+    }
+
+    private static void setNullableDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) {
+            ps.setDouble(index, value);
+        } else {
+            ps.setNull(index, Types.DOUBLE);
+        }
+    }
+
+    // ================== CSV HELPERS ==================
+
+    static List<String> parseCsvLine(String line) {
+        List<String> cols = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cols.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        cols.add(current.toString());
+        return cols;
+    }
+
+    private static String col(List<String> cols, int index) {
+        if (index >= cols.size()) {
+            return null;
+        }
+        String value = cols.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static double orZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    private static LocalDate parseDate(String value) {
+        return value != null ? LocalDate.parse(value) : null;
+    }
+
+    private static Double parseDouble(String value) {
+        return value != null ? Double.valueOf(value) : null;
+    }
+
+    private static Integer parseInteger(String value) {
+        return value != null ? Integer.valueOf(value) : null;
+    }
+
+    // ================== IMPORT STATE ==================
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps, int index) throws SQLException;
+    }
+
+    private static class PendingLighter {
+        final String ref;
+        final ShipmentDTO.LighterLoadingDTO dto;
+        final List<PendingTruck> trucks = new ArrayList<>(); // buffered for the current chunk only
+
+        Long id; // set once the chunk that inserted the lighter has committed
+        String rejection; // reported (with the skipped rows) when the lighter ends
+        boolean inChunk;
+        boolean ended;
+        double remainingLoaded;
+        int skippedTrucks;
+        int skippedProducts;
+
+        PendingLighter(String ref, ShipmentDTO.LighterLoadingDTO dto) {
+            this.ref = ref;
+            this.dto = dto;
+        }
+
+        double unloadedQuantity() {
+            return trucks.stream().mapToDouble(t -> t.dto.getUnloadedQuantity()).sum();
+        }
+
+        double truckCost() {
+            return trucks.stream().mapToDouble(PendingTruck::totalCost).sum();
+        }
+    }
+
+    private static class PendingTruck {
+        final String ref;
+        final ShipmentDTO.TruckUnloadingDTO dto;
+        final List<PendingProduct> products = new ArrayList<>();
+
+        PendingTruck(String ref, ShipmentDTO.TruckUnloadingDTO dto) {
+            this.ref = ref;
+            this.dto = dto;
+        }
+
+        double totalCost() {
+            return orZero(dto.getUnloadingCost()) + products.stream()
+                    .mapToDouble(p -> orZero(p.dto.getLighterCost()) + orZero(p.dto.getUnloadingCost())
+                            + orZero(p.dto.getTruckTransportCost()))
+                    .sum();
+        }
+    }
+
+    private record PendingProduct(String ref, ShipmentDTO.ProductDetailDTO dto) {
+    }
+
+    /**
+     * Tracks one import: the shipment row, the current chunk and running results
+     */
+    private class ImportSession {
+        private final Long instituteId;
+        private final Long userId;
+
+        private Long shipmentId;
+        private String motherVesselName;
+        private double remainingIncomingQuantity;
+
+        private final List<PendingLighter> chunk = new ArrayList<>();
+        private int chunkRows = 0;
+
+        private int lightersImported = 0;
+        private int trucksImported = 0;
+        private int productsImported = 0;
+        private int rowsRejected = 0;
+        private final List<ShipmentImportResultDTO.RowError> errors = new ArrayList<>();
+
+        ImportSession(Long instituteId, Long userId) {
+            this.instituteId = instituteId;
+            this.userId = userId;
+        }
+
+        void startShipment(ShipmentDTO dto) {
+            dto.setInstituteId(instituteId);
+            String invalid = violations(dto);
+            if (invalid != null) {
+                throw new RuntimeException("Invalid shipment: " + invalid);
+            }
+
+            Institute institute = instituteRepository.findById(instituteId)
+                    .orElseThrow(() -> new RuntimeException("Institute not found"));
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            ShipmentCycle shipment = ShipmentCycle.builder()
+                    .consignee(dto.getConsignee())
+                    .motherVesselName(dto.getMotherVesselName())
+                    .arrivalDate(dto.getArrivalDate())
+                    .totalIncomingQuantity(dto.getTotalIncomingQuantity())
+                    .itemType(dto.getItemType())
+                    .status(ShipmentStatus.PENDING)
+                    .shipmentDocumentPath(dto.getShipmentDocumentPath())
+                    .flowSummary(ShipmentCycle.formatFlowSummary(dto.getMotherVesselName(), 0, 0))
+                    .institute(institute)
+                    .createdBy(user)
+                    .build();
+
+            shipmentId = transactionTemplate.execute(status -> shipmentCycleRepository.save(shipment).getId());
+            motherVesselName = dto.getMotherVesselName();
+            remainingIncomingQuantity = dto.getTotalIncomingQuantity();
+        }
+
+        void reject(String ref, String message) {
+            rowsRejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ShipmentImportResultDTO.RowError(ref, message));
+            }
+        }
+
+        /**
+         * Validate a lighter and buffer it; its trucks follow through {@link #acceptTruck}.
+         * An invalid lighter is returned too, so its trucks are counted as skipped.
+         */
+        PendingLighter startLighter(PendingLighter lighter) {
+            String invalid = lighter.rejection != null ? lighter.rejection : violations(lighter.dto);
+            if (invalid == null && lighter.dto.getLoadedQuantity() > remainingIncomingQuantity) {
+                invalid = "Loaded quantity (" + lighter.dto.getLoadedQuantity() +
+                        ") exceeds remaining incoming quantity (" + remainingIncomingQuantity + ")";
+            }
+            if (invalid != null) {
+                lighter.rejection = invalid;
+                return lighter;
+            }
+
+            remainingIncomingQuantity -= lighter.dto.getLoadedQuantity();
+            lighter.remainingLoaded = lighter.dto.getLoadedQuantity();
+            addToChunk(lighter, 1);
+            return lighter;
+        }
+
+        /**
+         * Validate a complete truck (with its products) of the given lighter and buffer the valid rows
+         */
+        void acceptTruck(PendingLighter lighter, PendingTruck truck) {
+            if (lighter == null || truck == null) {
+                return;
+            }
+            if (lighter.rejection != null) {
+                lighter.skippedTrucks++;
+                lighter.skippedProducts += truck.products.size();
+                return;
+            }
+
+            String invalid = violations(truck.dto);
+            if (invalid == null && truck.dto.getUnloadedQuantity() > lighter.remainingLoaded) {
+                invalid = "Unloaded quantity exceeds loaded quantity for lighter: " + lighter.dto.getLighterName();
+            }
+            if (invalid != null) {
+                reject(truck.ref, invalid + skippedProducts(truck));
+                return;
+            }
+
+            truck.products.removeIf(product -> {
+                String productInvalid = violations(product.dto);
+                if (productInvalid != null) {
+                    reject(product.ref, productInvalid);
+                    return true;
+                }
+                return false;
+            });
+
+            lighter.remainingLoaded -= truck.dto.getUnloadedQuantity();
+            lighter.trucks.add(truck);
+            addToChunk(lighter, 1 + truck.products.size());
+        }
+
+        void endLighter(PendingLighter lighter) {
+            if (lighter == null) {
+                return;
+            }
+            lighter.ended = true;
+            if (lighter.rejection != null) {
+                reject(lighter.ref, lighter.rejection + skippedChildren(lighter));
+            }
+        }
+
+        private void addToChunk(PendingLighter lighter, int rows) {
+            if (!lighter.inChunk) {
+                lighter.inChunk = true;
+                chunk.add(lighter);
+            }
+            chunkRows += rows;
+            if (chunkRows >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            try {
+                List<Long> newLighterIds = transactionTemplate.execute(status -> writeChunk(shipmentId, chunk));
+                int next = 0;
+                for (PendingLighter lighter : chunk) {
+                    if (lighter.id == null) {
+                        lighter.id = newLighterIds.get(next++);
+                        lightersImported++;
+                    }
+                    trucksImported += lighter.trucks.size();
+                    productsImported += lighter.trucks.stream().mapToInt(t -> t.products.size()).sum();
+                }
+            } catch (DataAccessException e) {
+                String message = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+                for (PendingLighter lighter : chunk) {
+                    if (lighter.id == null) {
+                        // The lighter itself was in this chunk: it and all its trucks so far are gone
+                        remainingIncomingQuantity += lighter.dto.getLoadedQuantity();
+                        lighter.rejection = message;
+                        lighter.skippedTrucks += lighter.trucks.size();
+                        lighter.skippedProducts += lighter.trucks.stream().mapToInt(t -> t.products.size()).sum();
+                        if (lighter.ended) {
+                            reject(lighter.ref, message + skippedChildren(lighter));
+                        }
+                    } else {
+                        for (PendingTruck truck : lighter.trucks) {
+                            lighter.remainingLoaded += truck.dto.getUnloadedQuantity();
+                            reject(truck.ref, message + skippedProducts(truck));
+                        }
+                    }
+                }
+            }
+
+            for (PendingLighter lighter : chunk) {
+                lighter.trucks.clear();
+                lighter.inChunk = false;
+            }
+            chunk.clear();
+            chunkRows = 0;
+        }
+
+        /**
+         * Write what is still buffered and settle the shipment row: its flow summary, or the row itself
+         * when rows were rejected (or the manifest broke off) and nothing under it was imported.
+         * Also called when the manifest could not be read to the end, with that failure.
+         */
+        ShipmentImportResultDTO finish(String failure) {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                // Only this chunk was rolled back; earlier chunks stay imported and are reported
+                if (failure == null) {
+                    failure = "Chunk could not be written: " + e.getMessage();
+                }
+            }
+
+            boolean discarded = lightersImported == 0 && (rowsRejected > 0 || failure != null);
+            try {
+                if (discarded) {
+                    jdbcTemplate.update("DELETE FROM shipment_cycles WHERE id = ?", shipmentId);
+                } else {
+                    jdbcTemplate.update("UPDATE shipment_cycles SET flow_summary = ? WHERE id = ?",
+                            ShipmentCycle.formatFlowSummary(motherVesselName, lightersImported, trucksImported), shipmentId);
+                }
+            } finally {
+                eventPublisher.publishEvent(new ShipmentChangedEvent(instituteId, shipmentId, discarded
+                        ? ShipmentChangedEvent.SHIPMENT_DELETED
+                        : ShipmentChangedEvent.SHIPMENT_IMPORTED));
+            }
+
+            return ShipmentImportResultDTO.builder()
+                    .shipmentId(discarded ? null : shipmentId)
+                    .lightersImported(lightersImported)
+                    .trucksImported(trucksImported)
+                    .productsImported(productsImported)
+                    .rowsRejected(rowsRejected)
+                    .errorsTruncated(rowsRejected > errors.size())
+                    .errors(errors)
+                    .error(failure != null ? "Import stopped: " + failure : null)
+                    .build();
+        }
+
+        private String skippedChildren(PendingLighter lighter) {
+            if (lighter.skippedTrucks == 0) {
+                return "";
+            }
+            return " (" + lighter.skippedTrucks + " truck row(s) and " + lighter.skippedProducts + " product row(s) skipped)";
+        }
+
+        private String skippedProducts(PendingTruck truck) {
+            return truck.products.isEmpty() ? "" : " (" + truck.products.size() + " product row(s) skipped)";
+        }
+    }
+}
@@ -1,27 +1,54 @@
 package com.taskmanagement.service;
 
 import com.taskmanagement.dto.ShipmentDTO;
+import com.taskmanagement.dto.ShipmentSummaryDTO;
+import com.taskmanagement.dto.ShipmentSummaryPageDTO;
 import com.taskmanagement.dto.ShippingDashboardDTO;
 import com.taskmanagement.entity.*;
 import com.taskmanagement.enums.ShipmentStatus;
 import com.taskmanagement.repository.*;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ShipmentService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final ShipmentCycleRepository shipmentCycleRepository;
     private final LighterLoadingRepository lighterLoadingRepository;
     private final TruckUnloadingRepository truckUnloadingRepository;
     private final ProductDetailRepository productDetailRepository;
     private final InstituteRepository instituteRepository;
     private final UserRepository userRepository;
+    private final ShipmentHierarchyLoader shipmentHierarchyLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final ShipmentViewCache shipmentViewCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final StripedLocks lighterLocks = new StripedLocks(256);
+
+    @Value("${shipping.update.max-attempts:5}")
+    private int maxUpdateAttempts;
+
+    @Value("${shipping.update.lock-timeout-ms:5000}")
+    private long lockTimeoutMs;
 
     @Transactional
     public ShipmentDTO createShipment(ShipmentDTO dto, Long userId) {
@@ -71,14 +98,16 @@ public class ShipmentService {
 
         shipment.generateFlowSummary();
         shipment = shipmentCycleRepository.save(shipment);
+        publishChanged(ShipmentChangedEvent.SHIPMENT_CREATED, shipment, null, ShipmentChangedEvent.Totals.of(shipment), null);
 
         return mapToDTO(shipment);
     }
 
     @Transactional
     public ShipmentDTO updateShipment(Long shipmentId, ShipmentDTO dto) {
-        ShipmentCycle shipment = shipmentCycleRepository.findByIdWithFullHierarchy(shipmentId)
+        ShipmentCycle shipment = shipmentHierarchyLoader.load(shipmentId)
                 .orElseThrow(() -> new RuntimeException("Shipment not found"));
+        ShipmentChangedEvent.Totals before = ShipmentChangedEvent.Totals.of(shipment);
 
         shipment.setConsignee(dto.getConsignee());
         shipment.setMotherVesselName(dto.getMotherVesselName());
@@ -91,14 +120,18 @@ public class ShipmentService {
 
         shipment.generateFlowSummary();
         shipment = shipmentCycleRepository.save(shipment);
+        publishChanged(ShipmentChangedEvent.SHIPMENT_UPDATED, shipment, before, ShipmentChangedEvent.Totals.of(shipment), null);
 
         return mapToDTO(shipment);
     }
 
+    /**
+     * Full shipment hierarchy, served from the view cache when possible
+     */
     public ShipmentDTO getShipment(Long shipmentId) {
-        ShipmentCycle shipment = shipmentCycleRepository.findByIdWithFullHierarchy(shipmentId)
-                .orElseThrow(() -> new RuntimeException("Shipment not found"));
-        return mapToDTO(shipment);
+        return shipmentViewCache.getShipment(shipmentId, id -> shipmentHierarchyLoader.load(id)
+                .map(this::mapToDTO)
+                .orElseThrow(() -> new RuntimeException("Shipment not found")));
     }
 
     public List<ShipmentDTO> getAllShipmentsByInstitute(Long instituteId) {
@@ -106,19 +139,67 @@ public class ShipmentService {
         return shipments.stream().map(this::mapToDTO).collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated shipment summaries (newest arrival first) with optional filters.
+     * Reads only shipment rows and their running totals, so the cost per page is bounded.
+     */
+    public ShipmentSummaryPageDTO listShipmentSummaries(Long instituteId, ShipmentStatus status,
+                                                        String consignee, String vessel,
+                                                        LocalDate fromDate, LocalDate toDate,
+                                                        LocalDate afterDate, Long afterId, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (afterDate != null && afterId == null) {
+            afterId = Long.MAX_VALUE;
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<ShipmentSummaryDTO> rows = shipmentCycleRepository.findSummaryPage(
+                instituteId, status, blankToNull(consignee), blankToNull(vessel),
+                fromDate, toDate, afterDate, afterId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ShipmentSummaryDTO> page = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        ShipmentSummaryDTO last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return ShipmentSummaryPageDTO.builder()
+                .shipments(page)
+                .hasMore(hasMore)
+                .nextAfterDate(hasMore ? last.getArrivalDate() : null)
+                .nextAfterId(hasMore ? last.getId() : null)
+                .build();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     @Transactional
     public void deleteShipment(Long shipmentId) {
-        shipmentCycleRepository.deleteById(shipmentId);
+        shipmentCycleRepository.findById(shipmentId).ifPresent(shipment -> {
+            shipmentCycleRepository.delete(shipment);
+            publishChanged(ShipmentChangedEvent.SHIPMENT_DELETED, shipment, ShipmentChangedEvent.Totals.of(shipment), null, null);
+        });
     }
 
     /**
-     * Add lighter loading to existing shipment
+     * Add lighter loading to existing shipment.
+     * Retried when a concurrent change to the same shipment wins the optimistic lock.
+     * The write reads only the shipment row; the returned hierarchy is loaded after commit.
      */
-    @Transactional
     public ShipmentDTO addLighterLoading(Long shipmentId, ShipmentDTO.LighterLoadingDTO lighterDTO) {
-        ShipmentCycle shipment = shipmentCycleRepository.findByIdWithLighters(shipmentId)
+        withOptimisticRetry(() -> transactionTemplate.execute(status -> {
+            doAddLighterLoading(shipmentId, lighterDTO);
+            return shipmentId;
+        }));
+        return getShipment(shipmentId);
+    }
+
+    private void doAddLighterLoading(Long shipmentId, ShipmentDTO.LighterLoadingDTO lighterDTO) {
+        ShipmentCycle shipment = shipmentCycleRepository.findById(shipmentId)
                 .orElseThrow(() -> new RuntimeException("Shipment not found"));
+        ShipmentChangedEvent.Totals before = ShipmentChangedEvent.Totals.of(shipment);
 
+        // Applies the lighter to the running totals; the lighter collection itself stays unloaded
         LighterLoading lighter = mapToLighterEntity(lighterDTO);
         shipment.addLighterLoading(lighter);
 
@@ -126,42 +207,90 @@ public class ShipmentService {
         validateLoadedQuantity(shipment);
 
         shipment.generateFlowSummary();
-        shipment = shipmentCycleRepository.save(shipment);
-
-        return mapToDTO(shipment);
+        lighterLoadingRepository.save(lighter);
+        publishChanged(ShipmentChangedEvent.LIGHTER_ADDED, shipment, before, ShipmentChangedEvent.Totals.of(shipment),
+                lighterItem(lighter));
     }
 
     /**
-     * Add truck unloading to existing lighter
+     * Add truck unloading to existing lighter.
+     * Registrations for the same lighter are serialized in-process by a striped lock;
+     * across nodes the lighter's version column detects conflicts and the whole transaction
+     * is retried a bounded number of times. The shipment's totals are added with an atomic
+     * UPDATE, so trucks on different lighters of the same shipment never conflict.
      */
-    @Transactional
     public ShipmentDTO.LighterLoadingDTO addTruckUnloading(Long lighterId, ShipmentDTO.TruckUnloadingDTO truckDTO) {
-        LighterLoading lighter = lighterLoadingRepository.findByIdWithTruckUnloadings(lighterId)
+        Lock lock = lighterLocks.get(lighterId);
+        try {
+            if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Lighter is busy, please retry: " + lighterId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for lighter: " + lighterId, e);
+        }
+
+        try {
+            withOptimisticRetry(() -> transactionTemplate.execute(status -> {
+                doAddTruckUnloading(lighterId, truckDTO);
+                return lighterId;
+            }));
+        } finally {
+            lock.unlock();
+        }
+        // Loaded after the lock is released: the write itself reads only the lighter and shipment rows
+        return getLighter(lighterId);
+    }
+
+    private void doAddTruckUnloading(Long lighterId, ShipmentDTO.TruckUnloadingDTO truckDTO) {
+        LighterLoading lighter = lighterLoadingRepository.findById(lighterId)
                 .orElseThrow(() -> new RuntimeException("Lighter not found"));
+        ShipmentCycle shipment = lighter.getShipmentCycle();
 
+        ShipmentChangedEvent.Totals before = ShipmentChangedEvent.Totals.of(shipment);
         TruckUnloading truck = mapToTruckEntity(truckDTO);
-        lighter.addTruckUnloading(truck);
+        // Applies the truck to the lighter's running totals; the truck collection itself stays unloaded
+        lighter.appendTruckUnloading(truck);
 
         // Validate unloaded quantity doesn't exceed loaded
         if (!lighter.isQuantityBalanced()) {
             throw new RuntimeException("Unloaded quantity exceeds loaded quantity for lighter: " + lighter.getLighterName());
         }
 
-        lighter = lighterLoadingRepository.save(lighter);
+        truckUnloadingRepository.save(truck);
 
-        // Update shipment flow summary
-        ShipmentCycle shipment = lighter.getShipmentCycle();
-        shipment.generateFlowSummary();
-        shipmentCycleRepository.save(shipment);
+        // Shipment totals and flow summary, updated in place without a versioned write of the shipment
+        double cost = truck.calculateTotalCost();
+        shipmentCycleRepository.addTruckTotals(shipment.getId(), 1, truck.getUnloadedQuantity(), cost);
 
-        return mapToLighterDTO(lighter);
+        Map<String, Object> item = lighterItem(lighter);
+        item.put("challan", truck.getChallan());
+        item.put("unloadedQuantity", truck.getUnloadedQuantity());
+        publishChanged(ShipmentChangedEvent.TRUCK_ADDED, shipment, before,
+                before.plusTrucks(1, truck.getUnloadedQuantity(), cost), item);
     }
 
     /**
-     * Validate quantities across the flow
+     * Lighter with its trucks and their products, one query per level
+     */
+    private ShipmentDTO.LighterLoadingDTO getLighter(Long lighterId) {
+        return transactionTemplate.execute(status -> {
+            LighterLoading lighter = lighterLoadingRepository.findByIdWithTruckUnloadings(lighterId)
+                    .orElseThrow(() -> new RuntimeException("Lighter not found"));
+            List<Long> truckIds = lighter.getTruckUnloadings().stream().map(TruckUnloading::getId).toList();
+            if (!truckIds.isEmpty()) {
+                truckUnloadingRepository.findAllWithProductDetailsByIdIn(truckIds);
+            }
+            return mapToLighterDTO(lighter);
+        });
+    }
+
+    /**
+     * Validate quantities across the flow.
+     * Uses the running totals, so trucks and products are not loaded.
      */
     public Map<String, Object> validateQuantities(Long shipmentId) {
-        ShipmentCycle shipment = shipmentCycleRepository.findByIdWithFullHierarchy(shipmentId)
+        ShipmentCycle shipment = shipmentCycleRepository.findByIdWithLighters(shipmentId)
                 .orElseThrow(() -> new RuntimeException("Shipment not found"));
 
         Map<String, Object> validation = new HashMap<>();
@@ -199,46 +328,73 @@ public class ShipmentService {
     }
 
     /**
-     * Get dashboard analytics
+     * Get dashboard analytics, served from the view cache when possible
      */
     public ShippingDashboardDTO getDashboard(Long instituteId) {
-        List<ShipmentCycle> shipments = shipmentCycleRepository.findByInstituteId(instituteId);
+        return shipmentViewCache.getDashboard(instituteId, this::buildDashboard);
+    }
+
+    /**
+     * Built from grouped projections so no shipment, lighter or truck entities are loaded.
+     */
+    private ShippingDashboardDTO buildDashboard(Long instituteId) {
+        // Summary stats: counts and incoming quantity per status
+        long totalShipments = 0;
+        double totalIncomingQuantity = 0.0;
+        Map<ShipmentStatus, Long> countsByStatus = new EnumMap<>(ShipmentStatus.class);
+        for (Object[] row : shipmentCycleRepository.getStatusSummaryByInstitute(instituteId)) {
+            long count = ((Number) row[1]).longValue();
+            countsByStatus.put((ShipmentStatus) row[0], count);
+            totalShipments += count;
+            totalIncomingQuantity += ((Number) row[2]).doubleValue();
+        }
+
+        double totalCost = lighterLoadingRepository.sumLighterCostByInstitute(instituteId)
+                + truckUnloadingRepository.sumUnloadingCostByInstitute(instituteId)
+                + productDetailRepository.sumTotalCostByInstitute(instituteId);
+
+        // Lighter -> truck counts, grouped per shipment
+        Map<Long, Map<String, Integer>> lighterToTruckByShipment = new HashMap<>();
+        Map<Long, Integer> lightersByShipment = new HashMap<>();
+        Map<Long, Integer> trucksByShipment = new HashMap<>();
+        int totalLighters = 0;
+        int totalTrucks = 0;
+        for (Object[] row : lighterLoadingRepository.getTruckCountsByInstitute(instituteId)) {
+            Long shipmentId = (Long) row[0];
+            int truckCount = ((Number) row[2]).intValue();
+            lighterToTruckByShipment.computeIfAbsent(shipmentId, id -> new LinkedHashMap<>())
+                    .merge((String) row[1], truckCount, Integer::sum);
+            lightersByShipment.merge(shipmentId, 1, Integer::sum);
+            trucksByShipment.merge(shipmentId, truckCount, Integer::sum);
+            totalLighters++;
+            totalTrucks += truckCount;
+        }
 
-        // Summary stats
         ShippingDashboardDTO.SummaryStats stats = ShippingDashboardDTO.SummaryStats.builder()
-                .totalShipments((long) shipments.size())
-                .pendingShipments(shipments.stream().filter(s -> s.getStatus() == ShipmentStatus.PENDING).count())
-                .inProgressShipments(shipments.stream().filter(s -> s.getStatus() == ShipmentStatus.IN_PROGRESS).count())
-                .completedShipments(shipments.stream().filter(s -> s.getStatus() == ShipmentStatus.COMPLETED).count())
-                .totalIncomingQuantity(shipments.stream().mapToDouble(ShipmentCycle::getTotalIncomingQuantity).sum())
-                .totalCost(shipments.stream().mapToDouble(ShipmentCycle::calculateTotalCost).sum())
-                .totalLighters((int) shipments.stream().mapToLong(s -> s.getLighterLoadings().size()).sum())
-                .totalTrucks((int) shipments.stream()
-                        .flatMap(s -> s.getLighterLoadings().stream())
-                        .mapToLong(l -> l.getTruckUnloadings().size()).sum())
+                .totalShipments(totalShipments)
+                .pendingShipments(countsByStatus.getOrDefault(ShipmentStatus.PENDING, 0L))
+                .inProgressShipments(countsByStatus.getOrDefault(ShipmentStatus.IN_PROGRESS, 0L))
+                .completedShipments(countsByStatus.getOrDefault(ShipmentStatus.COMPLETED, 0L))
+                .totalIncomingQuantity(totalIncomingQuantity)
+                .totalCost(totalCost)
+                .totalLighters(totalLighters)
+                .totalTrucks(totalTrucks)
                 .build();
 
         // Flow visualizations
-        List<ShippingDashboardDTO.FlowVisualization> flows = shipments.stream()
-                .map(s -> {
-                    Map<String, Integer> lighterToTruck = s.getLighterLoadings().stream()
-                            .collect(Collectors.toMap(
-                                    LighterLoading::getLighterName,
-                                    l -> l.getTruckUnloadings().size()
-                            ));
-
-                    return ShippingDashboardDTO.FlowVisualization.builder()
-                            .shipmentId(s.getId())
-                            .motherVesselName(s.getMotherVesselName())
-                            .consignee(s.getConsignee())
-                            .flowSummary(s.getFlowSummary())
-                            .lightersCount(s.getLighterLoadings().size())
-                            .trucksCount((int) s.getLighterLoadings().stream()
-                                    .mapToLong(l -> l.getTruckUnloadings().size()).sum())
-                            .lighterToTruckMap(lighterToTruck)
-                            .build();
-                })
-                .collect(Collectors.toList());
+        List<ShippingDashboardDTO.FlowVisualization> flows = new ArrayList<>();
+        for (Object[] row : shipmentCycleRepository.getFlowRowsByInstitute(instituteId)) {
+            Long shipmentId = (Long) row[0];
+            flows.add(ShippingDashboardDTO.FlowVisualization.builder()
+                    .shipmentId(shipmentId)
+                    .motherVesselName((String) row[1])
+                    .consignee((String) row[2])
+                    .flowSummary((String) row[3])
+                    .lightersCount(lightersByShipment.getOrDefault(shipmentId, 0))
+                    .trucksCount(trucksByShipment.getOrDefault(shipmentId, 0))
+                    .lighterToTruckMap(lighterToTruckByShipment.getOrDefault(shipmentId, new LinkedHashMap<>()))
+                    .build());
+        }
 
         return ShippingDashboardDTO.builder()
                 .summaryStats(stats)
@@ -246,6 +402,40 @@ public class ShipmentService {
                 .build();
     }
 
+    private <T> T withOptimisticRetry(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxUpdateAttempts) {
+                    throw new RuntimeException("Shipment was modified concurrently, please retry", e);
+                }
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20L * attempt));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while retrying shipment update", ie);
+                }
+            }
+        }
+    }
+
+    private void publishChanged(String type, ShipmentCycle shipment, ShipmentChangedEvent.Totals before,
+                                ShipmentChangedEvent.Totals after, Map<String, Object> item) {
+        eventPublisher.publishEvent(new ShipmentChangedEvent(
+                shipment.getInstitute().getId(), shipment.getId(), type, before, after, item));
+    }
+
+    // Lighter as shown on the dashboards (name and running totals)
+    private static Map<String, Object> lighterItem(LighterLoading lighter) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("lighterName", lighter.getLighterName());
+        item.put("loadedQuantity", lighter.getLoadedQuantity());
+        item.put("totalUnloadedQuantity", lighter.getTotalUnloadedQuantity());
+        item.put("truckCount", lighter.getTruckCount());
+        return item;
+    }
+
     // Helper methods for validation
     private void validateLoadedQuantity(ShipmentCycle shipment) {
         Double totalLoaded = shipment.getTotalLoadedQuantity();
@@ -296,7 +486,8 @@ public class ShipmentService {
                 .build();
     }
 
-    private ShipmentDTO mapToDTO(ShipmentCycle shipment) {
+    // Package-private so the JMH mapping benchmark (src/jmh/java) can call it directly
+    ShipmentDTO mapToDTO(ShipmentCycle shipment) {
         return ShipmentDTO.builder()
                 .id(shipment.getId())
                 .consignee(shipment.getConsignee())
@@ -312,9 +503,8 @@ public class ShipmentService {
                 .assignedToName(shipment.getAssignedTo() != null ? shipment.getAssignedTo().getFullName() : null)
                 .totalCost(shipment.calculateTotalCost())
                 .totalLoadedQuantity(shipment.getTotalLoadedQuantity())
-                .lighterCount(shipment.getLighterLoadings().size())
-                .truckCount((int) shipment.getLighterLoadings().stream()
-                        .mapToLong(l -> l.getTruckUnloadings().size()).sum())
+                .lighterCount(shipment.getLighterCount())
+                .truckCount(shipment.getTruckCount())
                 .lighterLoadings(shipment.getLighterLoadings().stream()
                         .map(this::mapToLighterDTO)
                         .collect(Collectors.toList()))
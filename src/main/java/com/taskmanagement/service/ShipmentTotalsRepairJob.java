@@ -0,0 +1,55 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.repository.LighterLoadingRepository;
+import com.taskmanagement.repository.ShipmentCycleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Recomputes the running quantity/cost/count totals on shipment_cycles and
+ * lighter_loadings from the underlying truck and product rows.
+ * The totals are normally maintained as deltas; this repairs any drift with two
+ * set-based UPDATEs, nightly and, when shipping.totals.repair-on-startup is set,
+ * on startup. It also runs on startup when the totals of existing rows were never
+ * backfilled (shipping_running_totals_backfill.sql not run after the columns appeared).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShipmentTotalsRepairJob {
+
+    private final LighterLoadingRepository lighterLoadingRepository;
+    private final ShipmentCycleRepository shipmentCycleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${shipping.totals.repair-on-startup:false}")
+    private boolean repairOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void repairOnStartup() {
+        if (repairOnStartup) {
+            repairAll();
+        } else if (shipmentCycleRepository.existsUnfilledTotals()) {
+            log.warn("Shipments without backfilled running totals found, recalculating them now");
+            repairAll();
+        }
+    }
+
+    @Scheduled(cron = "${shipping.totals.repair-cron:0 30 2 * * *}")
+    @Transactional
+    public void repairAll() {
+        int lighters = lighterLoadingRepository.recalculateAllTotals();
+        int shipments = shipmentCycleRepository.recalculateAllTotals();
+        // Cached views are dropped once the repair commits (ShipmentViewCache)
+        eventPublisher.publishEvent(new ShipmentChangedEvent(null, null, ShipmentChangedEvent.TOTALS_REPAIRED));
+        log.info("Recalculated running totals for {} shipment(s) and {} lighter(s)", shipments, lighters);
+    }
+}
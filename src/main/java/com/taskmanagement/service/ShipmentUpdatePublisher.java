@@ -0,0 +1,75 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.enums.ShipmentStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Pushes shipment lifecycle events to the shipping pages once the change has committed:
+ * /topic/institute/{instituteId}/shipments (dashboard) and /topic/shipment/{shipmentId} (detail).
+ *
+ * Each message carries the shipment's new running totals and the change to the dashboard's
+ * summary stats (keys as in ShippingDashboardDTO.SummaryStats), so clients add it to what
+ * they show instead of polling /shipping/api/dashboard. Deltas commute, so messages of
+ * concurrent changes may arrive in any order. "delta" is null when the change is not known
+ * (bulk import); clients then reload the dashboard once.
+ */
+@Component
+public class ShipmentUpdatePublisher {
+
+    private final WebSocketService webSocketService;
+
+    public ShipmentUpdatePublisher(WebSocketService webSocketService) {
+        this.webSocketService = webSocketService;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShipmentChanged(ShipmentChangedEvent event) {
+        if (event.getInstituteId() == null || event.getShipmentId() == null || event.getType() == null) {
+            return;
+        }
+
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", event.getType());
+        message.put("shipmentId", event.getShipmentId());
+        message.put("timestamp", System.currentTimeMillis());
+        message.put("shipment", event.getAfter());
+        message.put("item", event.getItem());
+        message.put("delta", event.getBefore() != null || event.getAfter() != null
+                ? delta(event.getBefore(), event.getAfter())
+                : null);
+        webSocketService.sendShipmentUpdate(event.getInstituteId(), event.getShipmentId(), message);
+    }
+
+    private static Map<String, Object> delta(ShipmentChangedEvent.Totals before, ShipmentChangedEvent.Totals after) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("totalShipments", (after != null ? 1 : 0) - (before != null ? 1 : 0));
+        delta.put("pendingShipments", statusDelta(before, after, ShipmentStatus.PENDING));
+        delta.put("inProgressShipments", statusDelta(before, after, ShipmentStatus.IN_PROGRESS));
+        delta.put("completedShipments", statusDelta(before, after, ShipmentStatus.COMPLETED));
+        delta.put("totalIncomingQuantity", value(after, ShipmentChangedEvent.Totals::getIncomingQuantity)
+                - value(before, ShipmentChangedEvent.Totals::getIncomingQuantity));
+        delta.put("totalCost", value(after, ShipmentChangedEvent.Totals::getCost)
+                - value(before, ShipmentChangedEvent.Totals::getCost));
+        delta.put("totalLighters", (int) (value(after, ShipmentChangedEvent.Totals::getLighters)
+                - value(before, ShipmentChangedEvent.Totals::getLighters)));
+        delta.put("totalTrucks", (int) (value(after, ShipmentChangedEvent.Totals::getTrucks)
+                - value(before, ShipmentChangedEvent.Totals::getTrucks)));
+        return delta;
+    }
+
+    private static int statusDelta(ShipmentChangedEvent.Totals before, ShipmentChangedEvent.Totals after,
+                                   ShipmentStatus status) {
+        return (after != null && after.getStatus() == status ? 1 : 0)
+                - (before != null && before.getStatus() == status ? 1 : 0);
+    }
+
+    private static double value(ShipmentChangedEvent.Totals totals,
+                                ToDoubleFunction<ShipmentChangedEvent.Totals> field) {
+        return totals != null ? field.applyAsDouble(totals) : 0.0;
+    }
+}
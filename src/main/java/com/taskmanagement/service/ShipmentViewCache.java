@@ -0,0 +1,58 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.dto.ShipmentDTO;
+import com.taskmanagement.dto.ShippingDashboardDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Caches the per-institute shipping dashboard and per-shipment {@link ShipmentDTO}.
+ * Entries are dropped when a {@link ShipmentChangedEvent} is published, after the
+ * publishing transaction commits, and otherwise expire after their TTL.
+ * Callers get a copy of the cached DTO, so changing it does not affect other callers.
+ */
+@Component
+public class ShipmentViewCache {
+
+    private final BoundedCache<Long, ShippingDashboardDTO> dashboards;
+    private final BoundedCache<Long, ShipmentDTO> shipments;
+
+    public ShipmentViewCache(@Value("${shipping.cache.dashboard.max-size:500}") int dashboardMaxSize,
+                             @Value("${shipping.cache.dashboard.ttl-seconds:60}") long dashboardTtlSeconds,
+                             @Value("${shipping.cache.shipment.max-size:2000}") int shipmentMaxSize,
+                             @Value("${shipping.cache.shipment.ttl-seconds:300}") long shipmentTtlSeconds) {
+        this.dashboards = new BoundedCache<>("shippingDashboard", dashboardMaxSize, dashboardTtlSeconds);
+        this.shipments = new BoundedCache<>("shipment", shipmentMaxSize, shipmentTtlSeconds);
+    }
+
+    public ShippingDashboardDTO getDashboard(Long instituteId, Function<Long, ShippingDashboardDTO> loader) {
+        return dashboards.get(instituteId, loader).copy();
+    }
+
+    public ShipmentDTO getShipment(Long shipmentId, Function<Long, ShipmentDTO> loader) {
+        return shipments.get(shipmentId, loader).copy();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShipmentChanged(ShipmentChangedEvent event) {
+        if (event.getInstituteId() != null) {
+            dashboards.invalidate(event.getInstituteId());
+        } else {
+            dashboards.invalidateAll();
+        }
+        if (event.getShipmentId() != null) {
+            shipments.invalidate(event.getShipmentId());
+        } else if (event.getInstituteId() == null) {
+            shipments.invalidateAll();
+        }
+    }
+
+    public List<Map<String, Object>> stats() {
+        return List.of(dashboards.stats(), shipments.stats());
+    }
+}
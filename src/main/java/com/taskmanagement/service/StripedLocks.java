@@ -0,0 +1,28 @@
+package com.taskmanagement.service;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks addressed by key. Work on the same key is serialized while
+ * unrelated keys almost always map to different stripes and run in parallel,
+ * and the number of lock objects stays bounded no matter how many keys exist.
+ */
+public class StripedLocks {
+
+    private final Lock[] stripes;
+
+    public StripedLocks(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock get(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
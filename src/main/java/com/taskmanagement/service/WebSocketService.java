@@ -9,24 +9,33 @@ import java.util.Map;
 public class WebSocketService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final BoardUpdateBroadcaster boardUpdateBroadcaster;
 
-    public WebSocketService(SimpMessagingTemplate messagingTemplate) {
+    public WebSocketService(SimpMessagingTemplate messagingTemplate, BoardUpdateBroadcaster boardUpdateBroadcaster) {
         this.messagingTemplate = messagingTemplate;
+        this.boardUpdateBroadcaster = boardUpdateBroadcaster;
     }
 
     /**
      * Broadcast a message to all users viewing a specific board
      */
     public void sendBoardUpdate(Long boardId, String action, Map<String, Object> payload) {
-        String topic = "/topic/board/" + boardId;
-        
-        Map<String, Object> message = Map.of(
-            "action", action,
-            "timestamp", System.currentTimeMillis(),
-            "data", payload
-        );
-        
-        messagingTemplate.convertAndSend(topic, message);
+        boardUpdateBroadcaster.sendNow(boardId, action, payload);
+    }
+
+    /**
+     * Broadcast only the changed fields of an entry; coalesced with other changes to the board
+     */
+    public void sendEntryChanges(Long boardId, Long entryId, Map<String, Object> changedFields) {
+        boardUpdateBroadcaster.sendEntryChanges(boardId, entryId, changedFields);
+    }
+
+    /**
+     * Broadcast a shipment change to its institute's shipping dashboard and to the shipment's detail page
+     */
+    public void sendShipmentUpdate(Long instituteId, Long shipmentId, Map<String, Object> payload) {
+        messagingTemplate.convertAndSend("/topic/institute/" + instituteId + "/shipments", payload);
+        messagingTemplate.convertAndSend("/topic/shipment/" + shipmentId, payload);
     }
 
     /**
@@ -0,0 +1,302 @@
+package com.taskmanagement.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound WebSocket metrics per session and per board.
+ *
+ * Frames handed to a session (client outbound channel) minus frames actually written to
+ * the transport is what sits in the session's send buffer. When a session exceeds the
+ * send-time or buffer limit (websocket.send-time-limit-ms / send-buffer-size-limit) Spring
+ * closes it as SESSION_NOT_RELIABLE; its buffered frames are counted as dropped and the
+ * client resyncs when it reconnects. Byte counts are STOMP body sizes.
+ *
+ * Per-board totals (dropped frames, merged changes) cover the time a board has sessions:
+ * they are reset by a periodic sweep once no open session receives frames of the board.
+ */
+@Slf4j
+@Component
+public class WebSocketSessionMonitor {
+
+    private static final String BOARD_TOPIC = "/topic/board/";
+
+    private final Map<String, SessionStats> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, BoardTotals> boards = new ConcurrentHashMap<>();
+    private final AtomicLong slowConsumerDisconnects = new AtomicLong();
+
+    /**
+     * Handler decorator (registered on the /ws transport) that wraps each session to count written frames
+     */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                Principal user = session.getPrincipal();
+                SessionStats stats = new SessionStats(user != null ? user.getName() : null);
+                sessions.put(session.getId(), stats);
+                super.afterConnectionEstablished(new CountingSession(session, stats));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                SessionStats stats = sessions.remove(session.getId());
+                if (stats != null && stats.slowConsumer) {
+                    recordDropped(session.getId(), stats);
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * Client outbound channel interceptor: counts frames offered to each session.
+     * Heart-beats are left out, as on the sent side (CountingSession only counts frames with headers).
+     */
+    public ChannelInterceptor outboundInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (SimpMessageType.HEARTBEAT.equals(SimpMessageHeaderAccessor.getMessageType(message.getHeaders()))) {
+                    return message;
+                }
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                SessionStats stats = sessionId != null ? sessions.get(sessionId) : null;
+                if (stats != null) {
+                    int bytes = message.getPayload() instanceof byte[] payload ? payload.length : 0;
+                    Long boardId = boardId(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+                    stats.total.offered(bytes);
+                    if (boardId != null) {
+                        stats.board(boardId).offered(bytes);
+                    }
+                }
+                return message;
+            }
+        };
+    }
+
+    /**
+     * Entry changes folded into an already pending change of the same entry (one frame saved)
+     */
+    public void recordMerged(Long boardId) {
+        boardTotals(boardId).mergedChanges.incrementAndGet();
+    }
+
+    /**
+     * Drop the totals of boards no open session receives frames of, so the map only holds
+     * boards being watched (plus those touched since the last sweep)
+     */
+    @Scheduled(fixedDelayString = "${websocket.monitor.board-sweep-interval-ms:600000}")
+    public void resetUnwatchedBoards() {
+        Set<Long> watched = new HashSet<>();
+        sessions.values().forEach(stats -> watched.addAll(stats.boards.keySet()));
+        boards.keySet().retainAll(watched);
+    }
+
+    public Map<String, Object> stats() {
+        List<Map<String, Object>> sessionList = new ArrayList<>();
+        Map<Long, Map<String, Object>> boardMap = new TreeMap<>();
+        long queuedFrames = 0;
+        long queuedBytes = 0;
+
+        for (Map.Entry<String, SessionStats> entry : sessions.entrySet()) {
+            SessionStats stats = entry.getValue();
+            Map<String, Object> session = new LinkedHashMap<>();
+            session.put("sessionId", entry.getKey());
+            session.put("user", stats.user);
+            session.put("connectedAt", stats.connectedAt);
+            session.put("queuedFrames", stats.total.queuedFrames());
+            session.put("queuedBytes", stats.total.queuedBytes());
+            session.put("sentFrames", stats.total.sentFrames.get());
+            session.put("sentBytes", stats.total.sentBytes.get());
+            session.put("maxSendMillis", stats.maxSendNanos / 1_000_000);
+            session.put("boards", new TreeSet<>(stats.boards.keySet()));
+            sessionList.add(session);
+            queuedFrames += stats.total.queuedFrames();
+            queuedBytes += stats.total.queuedBytes();
+
+            stats.boards.forEach((boardId, counters) -> {
+                Map<String, Object> board = boardMap.computeIfAbsent(boardId, this::boardStats);
+                board.merge("sessions", 1, (a, b) -> (Integer) a + (Integer) b);
+                board.merge("queuedFrames", counters.queuedFrames(), (a, b) -> (Long) a + (Long) b);
+                board.merge("queuedBytes", counters.queuedBytes(), (a, b) -> (Long) a + (Long) b);
+            });
+        }
+        boards.keySet().forEach(boardId -> boardMap.computeIfAbsent(boardId, this::boardStats));
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("sessions", sessions.size());
+        totals.put("queuedFrames", queuedFrames);
+        totals.put("queuedBytes", queuedBytes);
+        totals.put("slowConsumerDisconnects", slowConsumerDisconnects.get());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totals", totals);
+        result.put("sessions", sessionList);
+        result.put("boards", boardMap);
+        return result;
+    }
+
+    private Map<String, Object> boardStats(Long boardId) {
+        BoardTotals totals = boardTotals(boardId);
+        Map<String, Object> board = new LinkedHashMap<>();
+        board.put("sessions", 0);
+        board.put("queuedFrames", 0L);
+        board.put("queuedBytes", 0L);
+        board.put("droppedFrames", totals.droppedFrames.get());
+        board.put("droppedBytes", totals.droppedBytes.get());
+        board.put("slowConsumerDisconnects", totals.slowConsumerDisconnects.get());
+        board.put("mergedChanges", totals.mergedChanges.get());
+        return board;
+    }
+
+    private void recordDropped(String sessionId, SessionStats stats) {
+        slowConsumerDisconnects.incrementAndGet();
+        stats.boards.forEach((boardId, counters) -> {
+            BoardTotals totals = boardTotals(boardId);
+            totals.droppedFrames.addAndGet(counters.queuedFrames());
+            totals.droppedBytes.addAndGet(counters.queuedBytes());
+            totals.slowConsumerDisconnects.incrementAndGet();
+        });
+        log.warn("Closed slow WebSocket session {} ({}): {} frame(s), {} byte(s) dropped",
+                sessionId, stats.user, stats.total.queuedFrames(), stats.total.queuedBytes());
+    }
+
+    private BoardTotals boardTotals(Long boardId) {
+        return boards.computeIfAbsent(boardId, id -> new BoardTotals());
+    }
+
+    private static Long boardId(String destination) {
+        if (destination == null || !destination.startsWith(BOARD_TOPIC)) {
+            return null;
+        }
+        int end = destination.indexOf('/', BOARD_TOPIC.length()); // e.g. /topic/board/{id}/compact
+        try {
+            return Long.valueOf(destination.substring(BOARD_TOPIC.length(), end < 0 ? destination.length() : end));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Counts frames as they are written to the transport (inside Spring's buffering decorator)
+     */
+    private static class CountingSession extends WebSocketSessionDecorator {
+        private final SessionStats stats;
+
+        CountingSession(WebSocketSession session, SessionStats stats) {
+            super(session);
+            this.stats = stats;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            long start = System.nanoTime();
+            super.sendMessage(message);
+            stats.maxSendNanos = Math.max(stats.maxSendNanos, System.nanoTime() - start);
+
+            if (message instanceof TextMessage text) {
+                String frame = text.getPayload();
+                int headerEnd = frame.indexOf("\n\n");
+                if (headerEnd < 0) {
+                    return; // heartbeat
+                }
+                String contentLength = header(frame, headerEnd, "content-length");
+                int bytes = contentLength != null ? Integer.parseInt(contentLength) : 0;
+                stats.total.sent(bytes);
+                Long boardId = boardId(header(frame, headerEnd, "destination"));
+                if (boardId != null) {
+                    stats.board(boardId).sent(bytes);
+                }
+            }
+        }
+
+        @Override
+        public void close(CloseStatus status) throws IOException {
+            // Spring closes a session that exceeded the send-time or buffer limit with this status
+            if (status.equalsCode(CloseStatus.SESSION_NOT_RELIABLE)) {
+                stats.slowConsumer = true;
+            }
+            super.close(status);
+        }
+
+        private static String header(String frame, int headerEnd, String name) {
+            int start = frame.indexOf("\n" + name + ":");
+            if (start < 0 || start > headerEnd) {
+                return null;
+            }
+            start += name.length() + 2;
+            int end = frame.indexOf('\n', start);
+            return frame.substring(start, end);
+        }
+    }
+
+    private static class Counters {
+        private final AtomicLong offeredFrames = new AtomicLong();
+        private final AtomicLong offeredBytes = new AtomicLong();
+        private final AtomicLong sentFrames = new AtomicLong();
+        private final AtomicLong sentBytes = new AtomicLong();
+
+        void offered(int bytes) {
+            offeredFrames.incrementAndGet();
+            offeredBytes.addAndGet(bytes);
+        }
+
+        void sent(int bytes) {
+            sentFrames.incrementAndGet();
+            sentBytes.addAndGet(bytes);
+        }
+
+        long queuedFrames() {
+            return Math.max(0, offeredFrames.get() - sentFrames.get());
+        }
+
+        long queuedBytes() {
+            return Math.max(0, offeredBytes.get() - sentBytes.get());
+        }
+    }
+
+    private static class SessionStats {
+        private final String user;
+        private final LocalDateTime connectedAt = LocalDateTime.now();
+        private final Counters total = new Counters();
+        private final Map<Long, Counters> boards = new ConcurrentHashMap<>();
+        private volatile long maxSendNanos;
+        private volatile boolean slowConsumer;
+
+        SessionStats(String user) {
+            this.user = user;
+        }
+
+        Counters board(Long boardId) {
+            return boards.computeIfAbsent(boardId, id -> new Counters());
+        }
+    }
+
+    private static class BoardTotals {
+        private final AtomicLong droppedFrames = new AtomicLong();
+        private final AtomicLong droppedBytes = new AtomicLong();
+        private final AtomicLong slowConsumerDisconnects = new AtomicLong();
+        private final AtomicLong mergedChanges = new AtomicLong();
+    }
+}
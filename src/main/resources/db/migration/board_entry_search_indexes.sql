@@ -0,0 +1,18 @@
+-- =====================================================
+-- BOARD ENTRY SEARCH INDEXES
+-- =====================================================
+-- Supports /api/boards/{boardId}/entries/search: each filter or sort column
+-- is indexed after board_id, so prefix filters, date ranges and keyset
+-- pages are range scans within one board
+-- =====================================================
+
+CREATE INDEX idx_board_date ON shipment_entries(board_id, date);
+CREATE INDEX idx_board_consignee ON shipment_entries(board_id, consignee);
+CREATE INDEX idx_board_lighter_vessel ON shipment_entries(board_id, lighter_vessel_name);
+CREATE INDEX idx_board_challan ON shipment_entries(board_id, challan_no);
+CREATE INDEX idx_board_item ON shipment_entries(board_id, item_name);
+CREATE INDEX idx_board_final_destination ON shipment_entries(board_id, final_destination);
+
+-- =====================================================
+-- END OF MIGRATION SCRIPT
+-- =====================================================
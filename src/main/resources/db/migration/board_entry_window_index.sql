@@ -0,0 +1,11 @@
+-- =====================================================
+-- BOARD ENTRY WINDOW INDEX
+-- =====================================================
+-- Supports keyset windows of /api/boards/{id}/entries on (position, id) per board
+-- =====================================================
+
+CREATE INDEX idx_board_position ON shipment_entries(board_id, position, id);
+
+-- =====================================================
+-- END OF MIGRATION SCRIPT
+-- =====================================================
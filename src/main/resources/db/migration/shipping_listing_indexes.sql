@@ -0,0 +1,11 @@
+-- =====================================================
+-- SHIPMENT LISTING INDEXES
+-- =====================================================
+-- Supports keyset pagination of /shipping/api/shipments on (arrival_date, id) per institute
+-- =====================================================
+
+CREATE INDEX idx_shipment_institute_arrival ON shipment_cycles(institute_id, arrival_date, id);
+
+-- =====================================================
+-- END OF MIGRATION SCRIPT
+-- =====================================================
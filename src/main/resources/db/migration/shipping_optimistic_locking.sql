@@ -0,0 +1,13 @@
+-- =====================================================
+-- OPTIMISTIC LOCKING FOR SHIPMENTS AND LIGHTERS
+-- =====================================================
+-- Version columns checked by JPA on every update, so concurrent truck
+-- registrations cannot overwrite each other's running totals
+-- =====================================================
+
+ALTER TABLE shipment_cycles ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE lighter_loadings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- =====================================================
+-- END OF MIGRATION SCRIPT
+-- =====================================================
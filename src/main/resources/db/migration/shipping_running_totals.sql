@@ -0,0 +1,23 @@
+-- =====================================================
+-- RUNNING TOTALS ON SHIPMENTS AND LIGHTERS
+-- =====================================================
+-- Persisted quantity/cost/count totals, maintained as deltas by the application.
+-- ShipmentTotalsRepairJob recomputes the same values nightly (and on startup if enabled).
+-- Run shipping_running_totals_backfill.sql afterwards to fill in existing rows.
+-- =====================================================
+
+ALTER TABLE lighter_loadings
+    ADD COLUMN total_unloaded_quantity DOUBLE NOT NULL DEFAULT 0 COMMENT 'Sum of truck unloaded quantities',
+    ADD COLUMN total_truck_cost DOUBLE NOT NULL DEFAULT 0 COMMENT 'Sum of truck unloading and product costs',
+    ADD COLUMN truck_count INT NOT NULL DEFAULT 0;
+
+ALTER TABLE shipment_cycles
+    ADD COLUMN total_loaded_quantity DOUBLE NOT NULL DEFAULT 0 COMMENT 'Sum of lighter loaded quantities',
+    ADD COLUMN total_unloaded_quantity DOUBLE NOT NULL DEFAULT 0 COMMENT 'Sum of truck unloaded quantities',
+    ADD COLUMN total_cost DOUBLE NOT NULL DEFAULT 0 COMMENT 'Lighter, unloading and product costs',
+    ADD COLUMN lighter_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN truck_count INT NOT NULL DEFAULT 0;
+
+-- =====================================================
+-- END OF MIGRATION SCRIPT
+-- =====================================================
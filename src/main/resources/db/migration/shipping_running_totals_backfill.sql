@@ -0,0 +1,49 @@
+-- =====================================================
+-- BACKFILL OF THE SHIPPING RUNNING TOTALS
+-- =====================================================
+-- Computes the running totals of every existing lighter and shipment and makes
+-- the columns NOT NULL. Can be run on its own and more than once: after
+-- shipping_running_totals.sql, or when hibernate.ddl-auto=update created the
+-- columns first (existing rows then hold NULL or 0).
+-- =====================================================
+
+-- Backfill lighters from their trucks and products
+UPDATE lighter_loadings ll SET
+    truck_count = (SELECT COUNT(*) FROM truck_unloadings tu WHERE tu.lighter_loading_id = ll.id),
+    total_unloaded_quantity = (SELECT COALESCE(SUM(tu.unloaded_quantity), 0)
+                               FROM truck_unloadings tu WHERE tu.lighter_loading_id = ll.id),
+    total_truck_cost = (SELECT COALESCE(SUM(COALESCE(tu.unloading_cost, 0)), 0)
+                        FROM truck_unloadings tu WHERE tu.lighter_loading_id = ll.id)
+                     + (SELECT COALESCE(SUM(COALESCE(pd.lighter_cost, 0) + COALESCE(pd.unloading_cost, 0)
+                                            + COALESCE(pd.truck_transport_cost, 0)), 0)
+                        FROM product_details pd
+                        JOIN truck_unloadings tu ON pd.truck_unloading_id = tu.id
+                        WHERE tu.lighter_loading_id = ll.id);
+
+-- Backfill shipments from their lighters
+UPDATE shipment_cycles sc SET
+    lighter_count = (SELECT COUNT(*) FROM lighter_loadings ll WHERE ll.shipment_cycle_id = sc.id),
+    truck_count = (SELECT COALESCE(SUM(ll.truck_count), 0) FROM lighter_loadings ll WHERE ll.shipment_cycle_id = sc.id),
+    total_loaded_quantity = (SELECT COALESCE(SUM(ll.loaded_quantity), 0)
+                             FROM lighter_loadings ll WHERE ll.shipment_cycle_id = sc.id),
+    total_unloaded_quantity = (SELECT COALESCE(SUM(ll.total_unloaded_quantity), 0)
+                               FROM lighter_loadings ll WHERE ll.shipment_cycle_id = sc.id),
+    total_cost = (SELECT COALESCE(SUM(COALESCE(ll.lighter_cost, 0) + ll.total_truck_cost), 0)
+                  FROM lighter_loadings ll WHERE ll.shipment_cycle_id = sc.id);
+
+-- Columns created by hibernate.ddl-auto=update before the NOT NULL mapping allow NULL
+ALTER TABLE lighter_loadings
+    MODIFY COLUMN total_unloaded_quantity DOUBLE NOT NULL DEFAULT 0 COMMENT 'Sum of truck unloaded quantities',
+    MODIFY COLUMN total_truck_cost DOUBLE NOT NULL DEFAULT 0 COMMENT 'Sum of truck unloading and product costs',
+    MODIFY COLUMN truck_count INT NOT NULL DEFAULT 0;
+
+ALTER TABLE shipment_cycles
+    MODIFY COLUMN total_loaded_quantity DOUBLE NOT NULL DEFAULT 0 COMMENT 'Sum of lighter loaded quantities',
+    MODIFY COLUMN total_unloaded_quantity DOUBLE NOT NULL DEFAULT 0 COMMENT 'Sum of truck unloaded quantities',
+    MODIFY COLUMN total_cost DOUBLE NOT NULL DEFAULT 0 COMMENT 'Lighter, unloading and product costs',
+    MODIFY COLUMN lighter_count INT NOT NULL DEFAULT 0,
+    MODIFY COLUMN truck_count INT NOT NULL DEFAULT 0;
+
+-- =====================================================
+-- END OF MIGRATION SCRIPT
+-- =====================================================
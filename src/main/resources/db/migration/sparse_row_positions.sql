@@ -0,0 +1,30 @@
+-- =====================================================
+-- SPARSE ROW POSITIONS
+-- =====================================================
+-- Ordering keys become BIGINT spaced 1048576 (2^20) apart so a row can be
+-- inserted or moved by writing only that row (see RowOrderingService).
+-- Existing rows are renumbered per parent, keeping their current order.
+-- =====================================================
+
+ALTER TABLE shipment_entries MODIFY position BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE `groups` MODIFY position BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tasks MODIFY position BIGINT NOT NULL DEFAULT 0;
+
+UPDATE shipment_entries e
+JOIN (SELECT id, ROW_NUMBER() OVER (PARTITION BY board_id ORDER BY position, id) AS rn
+      FROM shipment_entries) r ON r.id = e.id
+SET e.position = r.rn * 1048576;
+
+UPDATE `groups` g
+JOIN (SELECT id, ROW_NUMBER() OVER (PARTITION BY board_id ORDER BY position, id) AS rn
+      FROM `groups`) r ON r.id = g.id
+SET g.position = r.rn * 1048576;
+
+UPDATE tasks t
+JOIN (SELECT id, ROW_NUMBER() OVER (PARTITION BY group_id ORDER BY position, id) AS rn
+      FROM tasks) r ON r.id = t.id
+SET t.position = r.rn * 1048576;
+
+-- =====================================================
+-- END OF MIGRATION SCRIPT
+-- =====================================================
@@ -0,0 +1,22 @@
+-- =====================================================
+-- STORED ENTRY UNIT COSTING AND FINAL AMOUNT
+-- =====================================================
+-- total_unit_costing and final_amount become STORED generated columns, so
+-- they can be sorted, filtered, indexed and summed in SQL. The database keeps
+-- them current on every write (JPA, the JDBC bulk import or manual SQL).
+-- Adding a STORED generated column computes it for every existing row, which
+-- backfills all current entries.
+-- =====================================================
+
+ALTER TABLE shipment_entries
+    ADD COLUMN total_unit_costing DECIMAL(14,2) GENERATED ALWAYS AS
+        (COALESCE(lighter_cost, 0) + COALESCE(unload_cost, 0) + COALESCE(truck_cost, 0)) STORED,
+    ADD COLUMN final_amount DECIMAL(26,4) GENERATED ALWAYS AS
+        (COALESCE(billable_quantity, 0) * (COALESCE(lighter_cost, 0) + COALESCE(unload_cost, 0) + COALESCE(truck_cost, 0))) STORED;
+
+CREATE INDEX idx_board_final_amount ON shipment_entries (board_id, final_amount);
+CREATE INDEX idx_board_unit_costing ON shipment_entries (board_id, total_unit_costing);
+
+-- =====================================================
+-- END OF MIGRATION SCRIPT
+-- =====================================================
@@ -0,0 +1,210 @@
+package com.taskmanagement.config;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal STOMP 1.2 broker on a loopback port, standing in for the external broker of the relay mode:
+ * accepts every CONNECT, delivers each SEND to the subscriptions with exactly that destination.
+ * No heart-beats, acks or transactions.
+ */
+class StompBrokerStub implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService threads = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "stomp-broker-stub");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong messageIds = new AtomicLong();
+
+    StompBrokerStub() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        threads.execute(this::acceptConnections);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Wait until some connection subscribed to a destination starting with the prefix
+     */
+    void awaitSubscription(String destinationPrefix, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (subscriptions.stream().noneMatch(s -> s.destination().startsWith(destinationPrefix))) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No subscription to " + destinationPrefix + "* within " + timeout);
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        threads.shutdownNow();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Connection connection = new Connection(serverSocket.accept());
+                threads.execute(() -> serve(connection));
+            } catch (IOException e) {
+                return; // closed
+            }
+        }
+    }
+
+    private void serve(Connection connection) {
+        try (connection) {
+            Frame frame;
+            while ((frame = connection.read()) != null) {
+                String receipt = frame.headers().get("receipt");
+                switch (frame.command()) {
+                    case "CONNECT", "STOMP" -> {
+                        Map<String, String> headers = new LinkedHashMap<>();
+                        headers.put("version", "1.2");
+                        headers.put("heart-beat", "0,0");
+                        connection.write("CONNECTED", headers, null);
+                    }
+                    case "SUBSCRIBE" -> subscriptions.add(new Subscription(
+                            connection, frame.headers().get("id"), frame.headers().get("destination")));
+                    case "UNSUBSCRIBE" -> {
+                        String id = frame.headers().get("id");
+                        subscriptions.removeIf(s -> s.connection() == connection && s.id().equals(id));
+                    }
+                    case "SEND" -> deliver(frame);
+                    default -> {
+                        // ACK, NACK, BEGIN, COMMIT, ABORT: nothing to do; DISCONNECT: answered below
+                    }
+                }
+                if (receipt != null) {
+                    connection.write("RECEIPT", Map.of("receipt-id", receipt), null);
+                }
+                if ("DISCONNECT".equals(frame.command())) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // connection dropped
+        } finally {
+            subscriptions.removeIf(s -> s.connection() == connection);
+        }
+    }
+
+    private void deliver(Frame send) {
+        String destination = send.headers().get("destination");
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.destination().equals(destination)) {
+                continue;
+            }
+            Map<String, String> headers = new LinkedHashMap<>(send.headers());
+            headers.remove("receipt");
+            headers.remove("content-length");
+            headers.put("subscription", subscription.id());
+            headers.put("message-id", String.valueOf(messageIds.incrementAndGet()));
+            try {
+                subscription.connection().write("MESSAGE", headers, send.body());
+            } catch (IOException e) {
+                // subscriber gone; its subscriptions are dropped by its own thread
+            }
+        }
+    }
+
+    private record Subscription(Connection connection, String id, String destination) {
+    }
+
+    private record Frame(String command, Map<String, String> headers, byte[] body) {
+    }
+
+    private static class Connection implements Closeable {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        /**
+         * Next frame, or null at end of stream
+         */
+        Frame read() throws IOException {
+            String command;
+            do {
+                command = readLine(); // empty lines between frames are heart-beats
+                if (command == null) {
+                    return null;
+                }
+            } while (command.isEmpty());
+
+            Map<String, String> headers = new LinkedHashMap<>();
+            String line;
+            while ((line = readLine()) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                headers.putIfAbsent(line.substring(0, colon), line.substring(colon + 1)); // first one wins
+            }
+
+            String length = headers.get("content-length");
+            if (length != null) {
+                byte[] body = in.readNBytes(Integer.parseInt(length));
+                return in.read() < 0 ? null : new Frame(command, headers, body);
+            }
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) > 0) {
+                body.write(b);
+            }
+            return b < 0 ? null : new Frame(command, headers, body.toByteArray());
+        }
+
+        synchronized void write(String command, Map<String, String> headers, byte[] body) throws IOException {
+            StringBuilder frame = new StringBuilder(command).append('\n');
+            headers.forEach((name, value) -> frame.append(name).append(':').append(value).append('\n'));
+            if (body != null) {
+                frame.append("content-length:").append(body.length).append('\n');
+            }
+            frame.append('\n');
+            out.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+            if (body != null) {
+                out.write(body);
+            }
+            out.write(0);
+            out.flush();
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    return null;
+                }
+                line.write(b);
+            }
+            String text = line.toString(StandardCharsets.UTF_8);
+            return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
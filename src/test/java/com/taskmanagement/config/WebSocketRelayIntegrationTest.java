@@ -0,0 +1,208 @@
+package com.taskmanagement.config;
+
+import com.taskmanagement.repository.ShipmentCycleRepository;
+import com.taskmanagement.service.BoardFrameCodec;
+import com.taskmanagement.service.BoardUpdateBroadcaster;
+import com.taskmanagement.service.WebSocketService;
+import com.taskmanagement.service.WebSocketSessionMonitor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketMessagingAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.stomp.*;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes in websocket.broker.mode=relay on random local ports, sharing one broker
+ * ({@link StompBrokerStub}): messages sent on node A must reach a STOMP client connected to node B,
+ * both board topics and user destinations.
+ */
+class WebSocketRelayIntegrationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+
+    private static StompBrokerStub broker;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() throws Exception {
+        broker = new StompBrokerStub();
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+        awaitBrokerAvailable(nodeA);
+        awaitBrokerAvailable(nodeB);
+    }
+
+    @AfterAll
+    static void stopNodes() throws Exception {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (broker != null) {
+            broker.close();
+        }
+    }
+
+    @Test
+    void boardUpdateFromOneNodeReachesClientOfTheOther() throws Exception {
+        StompSession session = connect(nodeB, "alice");
+        BlockingQueue<Map<String, Object>> frames = subscribe(session, "/topic/board/7");
+        broker.awaitSubscription("/topic/board/7", TIMEOUT);
+
+        nodeA.getBean(WebSocketService.class).sendBoardUpdate(7L, "ENTRY_DELETED", Map.of("id", 42));
+
+        Map<String, Object> frame = frames.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        assertThat(frame).isNotNull();
+        assertThat(frame.get("action")).isEqualTo("ENTRY_DELETED");
+        assertThat(frame.get("node")).isEqualTo("node-a");
+        assertThat(frame.get("data")).isEqualTo(Map.of("id", 42));
+        session.disconnect();
+    }
+
+    @Test
+    void userMessageFromOneNodeReachesUserConnectedToTheOther() throws Exception {
+        StompSession session = connect(nodeB, "bob");
+        BlockingQueue<Map<String, Object>> messages = subscribe(session, "/user/queue/exports");
+        broker.awaitSubscription("/queue/exports-user", TIMEOUT);
+
+        nodeA.getBean(WebSocketService.class).sendToUser("bob", "/queue/exports", Map.of("jobId", "job-1"));
+
+        Map<String, Object> message = messages.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        assertThat(message).isNotNull();
+        assertThat(message.get("jobId")).isEqualTo("job-1");
+        session.disconnect();
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        // As arguments: they must override application.properties (server.port, websocket.broker.mode)
+        return new SpringApplicationBuilder(Node.class)
+                .web(WebApplicationType.SERVLET)
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--app.node-id=" + nodeId,
+                        "--websocket.broker.mode=relay",
+                        "--websocket.broker.relay.host=127.0.0.1",
+                        "--websocket.broker.relay.port=" + broker.getPort());
+    }
+
+    private static void awaitBrokerAvailable(ConfigurableApplicationContext node) throws InterruptedException {
+        AbstractBrokerMessageHandler relay =
+                node.getBean("stompBrokerRelayMessageHandler", AbstractBrokerMessageHandler.class);
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!relay.isBrokerAvailable()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Relay did not connect to the broker within " + TIMEOUT);
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static StompSession connect(ConfigurableApplicationContext node, String username) throws Exception {
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.setLogin(username);
+        return client.connectAsync("ws://127.0.0.1:" + port + "/ws/websocket", new WebSocketHttpHeaders(), connectHeaders,
+                new StompSessionHandlerAdapter() { }).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static BlockingQueue<Map<String, Object>> subscribe(StompSession session, String destination) {
+        BlockingQueue<Map<String, Object>> received = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((Map<String, Object>) payload);
+            }
+        });
+        return received;
+    }
+
+    /**
+     * One application node: the WebSocket/STOMP setup and the services that publish through it
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class, WebSocketServletAutoConfiguration.class,
+            WebSocketMessagingAutoConfiguration.class
+    })
+    @Import({WebSocketConfig.class, WebSocketSessionMonitor.class, BoardFrameCodec.class,
+            BoardUpdateBroadcaster.class, WebSocketService.class})
+    static class Node {
+
+        // Only consulted for /topic/shipment/{id} subscriptions, which these tests do not make
+        @Bean
+        ShipmentCycleRepository shipmentCycleRepository() {
+            return Mockito.mock(ShipmentCycleRepository.class);
+        }
+
+        // Stands in for the login: the STOMP CONNECT login header becomes the session's user
+        @Bean
+        WebSocketMessageBrokerConfigurer connectHeaderLogin() {
+            return new WebSocketMessageBrokerConfigurer() {
+                @Override
+                public void configureClientInboundChannel(ChannelRegistration registration) {
+                    registration.interceptors(new ChannelInterceptor() {
+                        @Override
+                        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                            StompHeaderAccessor accessor =
+                                    MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                            if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
+                                String login = accessor.getLogin();
+                                accessor.setUser(() -> login);
+                            }
+                            return message;
+                        }
+                    });
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.dto.ShipmentDTO;
+import com.taskmanagement.entity.Institute;
+import com.taskmanagement.entity.LighterLoading;
+import com.taskmanagement.entity.ShipmentCycle;
+import com.taskmanagement.enums.LoadUnloadStatus;
+import com.taskmanagement.enums.ShipmentStatus;
+import com.taskmanagement.repository.InstituteRepository;
+import com.taskmanagement.repository.LighterLoadingRepository;
+import com.taskmanagement.repository.ShipmentCycleRepository;
+import com.taskmanagement.repository.TruckUnloadingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parallel truck registrations against the running totals (ShipmentService.addTruckUnloading):
+ * one lighter must never be over-allocated, and lighters of the same shipment must not block
+ * or fail each other.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shipping_concurrency;MODE=MySQL;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true" // e.g. the groups table
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ShipmentService.class, ShipmentHierarchyLoader.class, ShipmentViewCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // each registration commits on its own
+class ShipmentServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ShipmentService shipmentService;
+
+    @Autowired
+    private InstituteRepository instituteRepository;
+
+    @Autowired
+    private ShipmentCycleRepository shipmentCycleRepository;
+
+    @Autowired
+    private LighterLoadingRepository lighterLoadingRepository;
+
+    @Autowired
+    private TruckUnloadingRepository truckUnloadingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void parallelTrucksOnOneLighterNeverExceedItsLoadedQuantity() throws Exception {
+        double loadedQuantity = 1000.0;
+        int attempts = 2000; // twice what fits
+        ShipmentCycle shipment = createShipment(1, loadedQuantity);
+        Long lighterId = lighterIds(shipment).get(0);
+
+        AtomicInteger accepted = new AtomicInteger();
+        Queue<Throwable> failures = runInParallel(attempts, i -> {
+            shipmentService.addTruckUnloading(lighterId, truck(1.0));
+            accepted.incrementAndGet();
+        });
+
+        LighterLoading lighter = lighterLoadingRepository.findById(lighterId).orElseThrow();
+        long trucks = truckUnloadingRepository.countByLighterLoading(lighterId);
+        double unloaded = truckUnloadingRepository.sumUnloadedQuantityByLighter(lighterId);
+
+        assertThat(unloaded).isLessThanOrEqualTo(loadedQuantity);
+        assertThat(accepted.get()).isEqualTo((int) loadedQuantity);
+        assertThat(trucks).isEqualTo(accepted.get());
+        assertThat(lighter.getTotalUnloadedQuantity()).isEqualTo(unloaded);
+        assertThat(lighter.getTruckCount()).isEqualTo((int) trucks);
+        // Every rejection is the over-allocation check, not a lock or retry failure
+        assertThat(failures).hasSize(attempts - accepted.get())
+                .allSatisfy(e -> assertThat(e).hasMessageStartingWith("Unloaded quantity exceeds loaded quantity"));
+
+        ShipmentCycle reloaded = shipmentCycleRepository.findById(shipment.getId()).orElseThrow();
+        assertThat(reloaded.getTruckCount()).isEqualTo((int) trucks);
+        assertThat(reloaded.getTotalUnloadedQuantity()).isEqualTo(unloaded);
+    }
+
+    @Test
+    void parallelTrucksOnDifferentLightersOfOneShipmentAllSucceed() throws Exception {
+        int lighters = 8;
+        int trucksPerLighter = 250;
+        ShipmentCycle shipment = createShipment(lighters, trucksPerLighter);
+        List<Long> lighterIds = lighterIds(shipment);
+
+        // Interleaved, so every lighter of the shipment is registering trucks at the same time
+        Queue<Throwable> failures = runInParallel(lighters * trucksPerLighter,
+                i -> shipmentService.addTruckUnloading(lighterIds.get(i % lighters), truck(1.0)));
+
+        assertThat(failures).isEmpty();
+        for (Long lighterId : lighterIds) {
+            LighterLoading lighter = lighterLoadingRepository.findById(lighterId).orElseThrow();
+            assertThat(truckUnloadingRepository.countByLighterLoading(lighterId)).isEqualTo(trucksPerLighter);
+            assertThat(lighter.getTruckCount()).isEqualTo(trucksPerLighter);
+            assertThat(lighter.getTotalUnloadedQuantity()).isEqualTo((double) trucksPerLighter);
+        }
+
+        ShipmentCycle reloaded = shipmentCycleRepository.findById(shipment.getId()).orElseThrow();
+        assertThat(reloaded.getTruckCount()).isEqualTo(lighters * trucksPerLighter);
+        assertThat(reloaded.getTotalUnloadedQuantity()).isEqualTo((double) lighters * trucksPerLighter);
+        assertThat(reloaded.getFlowSummary()).endsWith("to " + lighters + " Lighter(s), then to "
+                + lighters * trucksPerLighter + " Truck(s)");
+    }
+
+    private Queue<Throwable> runInParallel(int tasks, IndexedTask task) throws InterruptedException {
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        task.run(index);
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        return failures;
+    }
+
+    private ShipmentCycle createShipment(int lighters, double loadedQuantityPerLighter) {
+        return transactionTemplate.execute(status -> {
+            Institute institute = new Institute();
+            institute.setName("Concurrency test");
+            institute = instituteRepository.save(institute);
+
+            ShipmentCycle shipment = ShipmentCycle.builder()
+                    .consignee("PDL")
+                    .motherVesselName("MEGHNA ENERGY")
+                    .arrivalDate(LocalDate.now())
+                    .totalIncomingQuantity(lighters * loadedQuantityPerLighter)
+                    .itemType("10-20 Stone")
+                    .status(ShipmentStatus.PENDING)
+                    .institute(institute)
+                    .build();
+            for (int i = 0; i < lighters; i++) {
+                shipment.addLighterLoading(LighterLoading.builder()
+                        .lighterName("Lighter " + (i + 1))
+                        .loadingDate(LocalDate.now())
+                        .loadedQuantity(loadedQuantityPerLighter)
+                        .lighterCost(0.0)
+                        .status(LoadUnloadStatus.LOADED)
+                        .build());
+            }
+            shipment.generateFlowSummary();
+            return shipmentCycleRepository.save(shipment);
+        });
+    }
+
+    private List<Long> lighterIds(ShipmentCycle shipment) {
+        List<Long> ids = new ArrayList<>();
+        for (LighterLoading lighter : lighterLoadingRepository.findByShipmentCycleId(shipment.getId())) {
+            ids.add(lighter.getId());
+        }
+        return ids;
+    }
+
+    private static ShipmentDTO.TruckUnloadingDTO truck(double quantity) {
+        return ShipmentDTO.TruckUnloadingDTO.builder()
+                .conveyanceName("Truck")
+                .numberOfTrucks(1)
+                .unloadingDate(LocalDate.now())
+                .unloadedQuantity(quantity)
+                .unloadingCost(0.0)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        void run(int index) throws Exception;
+    }
+}